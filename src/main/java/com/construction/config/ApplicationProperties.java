@@ -1,7 +1,14 @@
 package com.construction.config;
 
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizeConfig.MaxSizePolicy;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Properties specific to Construction MS.
  * <p>
@@ -10,4 +17,635 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Bulk bulk = new Bulk();
+
+    private final Export export = new Export();
+
+    private final Count count = new Count();
+
+    private final Replica replica = new Replica();
+
+    private final Cache cache = new Cache();
+
+    private final QueryMetrics queryMetrics = new QueryMetrics();
+
+    private final StatementBudget statementBudget = new StatementBudget();
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Count getCount() {
+        return count;
+    }
+
+    public Replica getReplica() {
+        return replica;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    public StatementBudget getStatementBudget() {
+        return statementBudget;
+    }
+
+    /**
+     * How the total number of elements of a paginated list is computed.
+     */
+    public enum CountStrategy {
+        /**
+         * A {@code count(*)} query for each page, the total is sent in the {@code X-Total-Count} header.
+         */
+        EXACT,
+        /**
+         * A {@code count(*)} query cached in Hazelcast, evicted when an entity is inserted or deleted.
+         */
+        CACHED,
+        /**
+         * No count: only the links to the previous and next pages are sent.
+         */
+        NONE
+    }
+
+    public static class Bulk {
+
+        /**
+         * Number of entities written before the persistence context is flushed and cleared.
+         * Should be a multiple of {@code hibernate.jdbc.batch_size}.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of entities accepted in a single bulk request.
+         */
+        private int maxItems = 10000;
+
+        /**
+         * Maximum number of row errors reported by a CSV import, the following ones are only counted.
+         */
+        private int maxErrors = 100;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+
+        public int getMaxErrors() {
+            return maxErrors;
+        }
+
+        public void setMaxErrors(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+    }
+
+    public static class Export {
+
+        /**
+         * JDBC fetch size of the export cursors. With MySQL, {@code Integer.MIN_VALUE} streams the rows one by one
+         * instead of reading the whole result set in memory.
+         */
+        private int fetchSize = 100;
+
+        /**
+         * Number of exported rows after which the persistence context is cleared.
+         */
+        private int clearInterval = 1000;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public int getClearInterval() {
+            return clearInterval;
+        }
+
+        public void setClearInterval(int clearInterval) {
+            this.clearInterval = clearInterval;
+        }
+    }
+
+    public static class Count {
+
+        /**
+         * Count strategy of the list endpoints without a specific strategy.
+         */
+        private CountStrategy defaultStrategy = CountStrategy.EXACT;
+
+        /**
+         * Count strategy of each list endpoint, by name: {@code appartements}, {@code etages}, {@code batiments}
+         * or {@code audits}.
+         */
+        private Map<String, CountStrategy> strategies = new HashMap<>();
+
+        /**
+         * Time to live of the cached counts, which are not evicted when an entity is updated.
+         */
+        private int timeToLiveSeconds = 30;
+
+        public CountStrategy getDefaultStrategy() {
+            return defaultStrategy;
+        }
+
+        public void setDefaultStrategy(CountStrategy defaultStrategy) {
+            this.defaultStrategy = defaultStrategy;
+        }
+
+        public Map<String, CountStrategy> getStrategies() {
+            return strategies;
+        }
+
+        public void setStrategies(Map<String, CountStrategy> strategies) {
+            this.strategies = strategies;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public CountStrategy getStrategy(String endpoint) {
+            return strategies.getOrDefault(endpoint, defaultStrategy);
+        }
+    }
+
+    public static class Replica {
+
+        /**
+         * Send the read-only transactions to the replica. The other properties are ignored when it is disabled.
+         */
+        private boolean enabled = false;
+
+        /**
+         * JDBC URL of the replica. Its pool has the same settings as the {@code spring.datasource.hikari} pool.
+         */
+        private String url;
+
+        /**
+         * User of the replica, the user of the primary when it is not set.
+         */
+        private String username;
+
+        private String password;
+
+        /**
+         * Query returning the replication lag of the replica in seconds, or {@code null} when the replication is stopped.
+         * Without query, only the connection to the replica is checked.
+         */
+        private String lagQuery;
+
+        /**
+         * Maximum replication lag: the read-only transactions go to the primary while the replica is further behind.
+         */
+        private int maxLagSeconds = 5;
+
+        /**
+         * Delay between two checks of the replica.
+         */
+        private int checkIntervalSeconds = 5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getLagQuery() {
+            return lagQuery;
+        }
+
+        public void setLagQuery(String lagQuery) {
+            this.lagQuery = lagQuery;
+        }
+
+        public int getMaxLagSeconds() {
+            return maxLagSeconds;
+        }
+
+        public void setMaxLagSeconds(int maxLagSeconds) {
+            this.maxLagSeconds = maxLagSeconds;
+        }
+
+        public int getCheckIntervalSeconds() {
+            return checkIntervalSeconds;
+        }
+
+        public void setCheckIntervalSeconds(int checkIntervalSeconds) {
+            this.checkIntervalSeconds = checkIntervalSeconds;
+        }
+    }
+
+    public static class Cache {
+
+        private final NearCache nearCache = new NearCache();
+
+        /**
+         * Near cache of the {@code usersByLogin} and {@code usersByEmail} caches, read by each authenticated request.
+         */
+        private final NearCache userNearCache = new NearCache();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        private final Cluster cluster = new Cluster();
+
+        /**
+         * Configuration of the Hazelcast maps, by map name or pattern: {@code default}, the name of an entity or of
+         * a collection role such as {@code com.construction.domain.Batiment.etages}, or a Spring cache name.
+         */
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        public NearCache getNearCache() {
+            return nearCache;
+        }
+
+        public NearCache getUserNearCache() {
+            return userNearCache;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public Cluster getCluster() {
+            return cluster;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+    }
+
+    /**
+     * Membership of the Hazelcast cluster, whose members are the instances of the service in the registry.
+     */
+    public static class Cluster {
+
+        /**
+         * Interval between two searches of the registered instances which are not members of the cluster, which
+         * then merge in.
+         */
+        private int mergeIntervalSeconds = 30;
+
+        public int getMergeIntervalSeconds() {
+            return mergeIntervalSeconds;
+        }
+
+        public void setMergeIntervalSeconds(int mergeIntervalSeconds) {
+            this.mergeIntervalSeconds = mergeIntervalSeconds;
+        }
+    }
+
+    /**
+     * Configuration of a Hazelcast map, each unset property keeps the value of the map configuration it overrides.
+     */
+    public static class Region {
+
+        /**
+         * Maximum size of the map, in the unit of the max size policy, 0 for no limit.
+         */
+        private Integer maxSize;
+
+        private MaxSizePolicy maxSizePolicy;
+
+        /**
+         * Eviction policy once the maximum size is reached, {@code NONE} to reject the new entries.
+         */
+        private EvictionPolicy evictionPolicy;
+
+        private Integer timeToLiveSeconds;
+
+        private Integer maxIdleSeconds;
+
+        private Integer backupCount;
+
+        /**
+         * Whether the backup entries held by a member are read instead of asking the owner of the entry.
+         */
+        private Boolean readBackupData;
+
+        private InMemoryFormat inMemoryFormat;
+
+        public Integer getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(Integer maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public MaxSizePolicy getMaxSizePolicy() {
+            return maxSizePolicy;
+        }
+
+        public void setMaxSizePolicy(MaxSizePolicy maxSizePolicy) {
+            this.maxSizePolicy = maxSizePolicy;
+        }
+
+        public EvictionPolicy getEvictionPolicy() {
+            return evictionPolicy;
+        }
+
+        public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+        }
+
+        public Integer getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public Integer getMaxIdleSeconds() {
+            return maxIdleSeconds;
+        }
+
+        public void setMaxIdleSeconds(Integer maxIdleSeconds) {
+            this.maxIdleSeconds = maxIdleSeconds;
+        }
+
+        public Integer getBackupCount() {
+            return backupCount;
+        }
+
+        public void setBackupCount(Integer backupCount) {
+            this.backupCount = backupCount;
+        }
+
+        public Boolean getReadBackupData() {
+            return readBackupData;
+        }
+
+        public void setReadBackupData(Boolean readBackupData) {
+            this.readBackupData = readBackupData;
+        }
+
+        public InMemoryFormat getInMemoryFormat() {
+            return inMemoryFormat;
+        }
+
+        public void setInMemoryFormat(InMemoryFormat inMemoryFormat) {
+            this.inMemoryFormat = inMemoryFormat;
+        }
+    }
+
+    /**
+     * Loading of the second-level cache at startup, before the instance is marked as up in the service registry.
+     */
+    public static class WarmUp {
+
+        private boolean enabled = true;
+
+        /**
+         * Time after which the instance is marked as up even if the warm-up is not complete, the loading goes on.
+         */
+        private int timeoutSeconds = 60;
+
+        /**
+         * Number of entities read by each query.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of batiments, and of etages, loaded.
+         */
+        private int maxEntries = 100000;
+
+        /**
+         * Number of appartements loaded, the most recently created ones, 0 to not load the appartements.
+         */
+        private int appartements = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public void setTimeoutSeconds(int timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getAppartements() {
+            return appartements;
+        }
+
+        public void setAppartements(int appartements) {
+            this.appartements = appartements;
+        }
+    }
+
+    /**
+     * Near cache of Hazelcast maps, invalidated when an entry changes on any member.
+     */
+    public static class NearCache {
+
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of entries of each map kept in the near cache, the least frequently used ones are evicted.
+         */
+        private int maxSize = 10000;
+
+        /**
+         * Time to live of the near cache entries, 0 to only rely on the invalidations.
+         */
+        private int timeToLiveSeconds = 0;
+
+        /**
+         * Maximum time a near cache entry is kept without being read, 0 to keep it until it is evicted.
+         */
+        private int maxIdleSeconds = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getMaxIdleSeconds() {
+            return maxIdleSeconds;
+        }
+
+        public void setMaxIdleSeconds(int maxIdleSeconds) {
+            this.maxIdleSeconds = maxIdleSeconds;
+        }
+    }
+
+    /**
+     * Meters and slow query log of the Hibernate queries, when {@code hibernate.generate_statistics} is enabled.
+     */
+    public static class QueryMetrics {
+
+        /**
+         * Execution time from which a query is logged, {@code 0} to log none.
+         */
+        private long slowQueryThresholdMs = 500;
+
+        /**
+         * Maximum number of queries with meters of their own, the queries executed afterwards have none.
+         */
+        private int maxQueries = 500;
+
+        public long getSlowQueryThresholdMs() {
+            return slowQueryThresholdMs;
+        }
+
+        public void setSlowQueryThresholdMs(long slowQueryThresholdMs) {
+            this.slowQueryThresholdMs = slowQueryThresholdMs;
+        }
+
+        public int getMaxQueries() {
+            return maxQueries;
+        }
+
+        public void setMaxQueries(int maxQueries) {
+            this.maxQueries = maxQueries;
+        }
+    }
+
+    /**
+     * SQL statements of each HTTP request, counted by the {@link StatementCountFilter}.
+     */
+    public static class StatementBudget {
+
+        /**
+         * Number of statements from which a request is logged, {@code 0} to log none.
+         */
+        private int maxStatements = 20;
+
+        /**
+         * Number of runs from which an identical statement of a request is reported as a possible N+1 select.
+         */
+        private int repeatedStatementThreshold = 3;
+
+        /**
+         * Send the count of the statements and of the repeated statements in the response headers.
+         */
+        private boolean debugHeader = false;
+
+        public int getMaxStatements() {
+            return maxStatements;
+        }
+
+        public void setMaxStatements(int maxStatements) {
+            this.maxStatements = maxStatements;
+        }
+
+        public int getRepeatedStatementThreshold() {
+            return repeatedStatementThreshold;
+        }
+
+        public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+            this.repeatedStatementThreshold = repeatedStatementThreshold;
+        }
+
+        public boolean isDebugHeader() {
+            return debugHeader;
+        }
+
+        public void setDebugHeader(boolean debugHeader) {
+            this.debugHeader = debugHeader;
+        }
+    }
 }
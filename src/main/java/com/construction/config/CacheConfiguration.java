@@ -1,15 +1,23 @@
 package com.construction.config;
 
+import com.construction.repository.UserRepository;
+
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.JHipsterProperties;
 
 import com.hazelcast.config.*;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Hazelcast;
+import com.hazelcast.hibernate.HazelcastCacheRegionFactory;
+import com.hazelcast.spi.properties.GroupProperty;
+
+import org.hibernate.cache.internal.SimpleCacheKeysFactory;
+import org.hibernate.cfg.AvailableSettings;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 
 import org.springframework.cache.CacheManager;
@@ -28,6 +36,11 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
 import javax.annotation.PreDestroy;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableCaching
@@ -65,11 +78,11 @@ public class CacheConfiguration {
     @Bean
     public CacheManager cacheManager(HazelcastInstance hazelcastInstance) {
         log.debug("Starting HazelcastCacheManager");
-        return new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
+        return new CountingHazelcastCacheManager(hazelcastInstance);
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("constructionMS");
         if (hazelCastInstance != null) {
@@ -86,6 +99,7 @@ public class CacheConfiguration {
             // see the "spring.application.name" standard Spring property
             String serviceId = registration.getServiceId();
             log.debug("Configuring Hazelcast clustering for instanceId: {}", serviceId);
+            Function<ServiceInstance, InetSocketAddress> memberAddress;
             // In development, everything goes through 127.0.0.1, with a different port
             if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
                 log.debug("Application is running with the \"dev\" profile, Hazelcast " +
@@ -93,30 +107,54 @@ public class CacheConfiguration {
 
                 System.setProperty("hazelcast.local.localAddress", "127.0.0.1");
                 config.getNetworkConfig().setPort(serverProperties.getPort() + 5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = "127.0.0.1:" + (instance.getPort() + 5701);
-                    log.debug("Adding Hazelcast (dev) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                memberAddress = instance -> new InetSocketAddress("127.0.0.1", instance.getPort() + 5701);
             } else { // Production configuration, one host per instance all using port 5701
                 config.getNetworkConfig().setPort(5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = instance.getHost() + ":5701";
-                    log.debug("Adding Hazelcast (prod) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                memberAddress = instance -> new InetSocketAddress(instance.getHost(), 5701);
             }
+            // The members are read from the registry when joining, then at each search for other clusters to merge with
+            int mergeIntervalSeconds = applicationProperties.getCache().getCluster().getMergeIntervalSeconds();
+            config.setProperty(GroupProperty.DISCOVERY_SPI_ENABLED.getName(), "true");
+            config.setProperty(GroupProperty.MERGE_FIRST_RUN_DELAY_SECONDS.getName(), String.valueOf(mergeIntervalSeconds));
+            config.setProperty(GroupProperty.MERGE_NEXT_RUN_DELAY_SECONDS.getName(), String.valueOf(mergeIntervalSeconds));
+            config.getNetworkConfig().getJoin().getDiscoveryConfig().addDiscoveryStrategyConfig(
+                new DiscoveryStrategyConfig(new DiscoveryClientDiscoveryStrategy.Factory(discoveryClient, serviceId, memberAddress)));
         }
         config.getMapConfigs().put("default", initializeDefaultMapConfig(jHipsterProperties));
 
         // Full reference is available at: https://docs.hazelcast.org/docs/management-center/3.9/manual/html/Deploying_and_Starting.html
         config.setManagementCenterConfig(initializeDefaultManagementCenterConfig(jHipsterProperties));
-        config.getMapConfigs().put("com.construction.domain.*", initializeDomainMapConfig(jHipsterProperties));
+        config.getMapConfigs().put("com.construction.domain.*", initializeDomainMapConfig(jHipsterProperties, applicationProperties));
+        config.getMapConfigs().put("query.*", initializeQueryMapConfig(jHipsterProperties));
+        List<MapConfig> regionMapConfigs = applicationProperties.getCache().getRegions().entrySet().stream()
+            .map(region -> initializeRegionMapConfig(config.findMapConfig(region.getKey()), region.getKey(), region.getValue()))
+            .collect(Collectors.toList());
+        regionMapConfigs.forEach(config::addMapConfig);
+        ApplicationProperties.NearCache userNearCache = applicationProperties.getCache().getUserNearCache();
+        if (userNearCache.isEnabled()) {
+            for (String name : Arrays.asList(UserRepository.USERS_BY_LOGIN_CACHE, UserRepository.USERS_BY_EMAIL_CACHE)) {
+                config.addMapConfig(new MapConfig(config.findMapConfig(name)).setName(name)
+                    .setNearCacheConfig(initializeNearCacheConfig(userNearCache)));
+            }
+        }
+        CacheSerializers.register(config.getSerializationConfig());
         return Hazelcast.newHazelcastInstance(config);
     }
 
+    /*
+    By default the second-level cache keys hold the id, the entity or collection role name and its Hibernate type,
+    all serialized with Java serialization for each lookup.
+    As each region only holds one entity or collection role, the id alone is enough.
+    */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheKeysCustomizer() {
+        return hibernateProperties -> {
+            if (HazelcastCacheRegionFactory.class.getName().equals(hibernateProperties.get(AvailableSettings.CACHE_REGION_FACTORY))) {
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, new HazelcastCacheRegionFactory(SimpleCacheKeysFactory.INSTANCE));
+            }
+        };
+    }
+
     private ManagementCenterConfig initializeDefaultManagementCenterConfig(JHipsterProperties jHipsterProperties) {
         ManagementCenterConfig managementCenterConfig = new ManagementCenterConfig();
         managementCenterConfig.setEnabled(jHipsterProperties.getCache().getHazelcast().getManagementCenter().isEnabled());
@@ -155,9 +193,76 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
-    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
+    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         MapConfig mapConfig = new MapConfig();
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        ApplicationProperties.NearCache nearCache = applicationProperties.getCache().getNearCache();
+        if (nearCache.isEnabled()) {
+            mapConfig.setNearCacheConfig(initializeNearCacheConfig(nearCache));
+        }
+        return mapConfig;
+    }
+
+    /*
+    Without near cache, a second-level cache hit is a remote call to the member owning the partition of the entity,
+    followed by a deserialization, and even a local entry is deserialized.
+    The near cache keeps the hot entries deserialized (OBJECT format), local ones included, and drops them when they
+    change on any member.
+    Its hits and misses are published as cache.near.requests with the other cache metrics: the HazelcastCacheManager
+    exposes every map of the instance, the Hibernate regions included.
+    The user caches get their own near cache, with a short time to live, on top of their map configuration.
+    */
+    private NearCacheConfig initializeNearCacheConfig(ApplicationProperties.NearCache nearCache) {
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        nearCacheConfig.setInvalidateOnChange(true);
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setTimeToLiveSeconds(nearCache.getTimeToLiveSeconds());
+        nearCacheConfig.setMaxIdleSeconds(nearCache.getMaxIdleSeconds());
+        nearCacheConfig.setEvictionConfig(new EvictionConfig(nearCache.getMaxSize(), EvictionConfig.MaxSizePolicy.ENTRY_COUNT, EvictionPolicy.LFU));
+        return nearCacheConfig;
+    }
+
+    /*
+    The query cache regions are local to each member, only the update timestamps of the tables are shared: a query
+    is read again when one of its tables has been written on any member since it was cached.
+    */
+    private MapConfig initializeQueryMapConfig(JHipsterProperties jHipsterProperties) {
+        MapConfig mapConfig = new MapConfig();
+        mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(10000, MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        return mapConfig;
+    }
+
+    /*
+    A region is configured on top of a copy of the map configuration matching its name: the default map configuration,
+    or the com.construction.domain.* one for the second-level cache regions, near cache included.
+    */
+    MapConfig initializeRegionMapConfig(MapConfig baseMapConfig, String name, ApplicationProperties.Region region) {
+        MapConfig mapConfig = new MapConfig(baseMapConfig).setName(name);
+        MaxSizeConfig maxSizeConfig = mapConfig.getMaxSizeConfig();
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(
+            region.getMaxSize() != null ? region.getMaxSize() : maxSizeConfig.getSize(),
+            region.getMaxSizePolicy() != null ? region.getMaxSizePolicy() : maxSizeConfig.getMaxSizePolicy()));
+        if (region.getEvictionPolicy() != null) {
+            mapConfig.setEvictionPolicy(region.getEvictionPolicy());
+        }
+        if (region.getTimeToLiveSeconds() != null) {
+            mapConfig.setTimeToLiveSeconds(region.getTimeToLiveSeconds());
+        }
+        if (region.getMaxIdleSeconds() != null) {
+            mapConfig.setMaxIdleSeconds(region.getMaxIdleSeconds());
+        }
+        if (region.getBackupCount() != null) {
+            mapConfig.setBackupCount(region.getBackupCount());
+        }
+        if (region.getReadBackupData() != null) {
+            mapConfig.setReadBackupData(region.getReadBackupData());
+        }
+        if (region.getInMemoryFormat() != null) {
+            mapConfig.setInMemoryFormat(region.getInMemoryFormat());
+        }
+        log.debug("Configured the {} map: {}", name, mapConfig);
         return mapConfig;
     }
 
@@ -0,0 +1,220 @@
+package com.construction.config;
+
+import com.construction.service.BatimentQueryService;
+import com.construction.service.EtageQueryService;
+
+import com.hazelcast.core.DistributedObject;
+import com.hazelcast.core.DistributedObjectEvent;
+import com.hazelcast.core.DistributedObjectListener;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MembershipAdapter;
+import com.hazelcast.core.MembershipEvent;
+import com.hazelcast.spring.cache.HazelcastCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.DomainDataRegion;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Metrics of the Hazelcast maps and of the Hibernate cache regions, tagged by map or by region.
+ * <p>
+ * Every Hazelcast map is published with the Spring Boot cache metrics, completed by {@link HazelcastMapMetrics}. Spring
+ * Boot only binds the caches which exist at startup: the maps created afterwards, such as the {@code usersByLogin}
+ * cache or the count maps, are bound when they are created.
+ * <p>
+ * Each entity, collection and query cache region gets the {@code hibernate.cache.region.requests} counters, tagged
+ * with {@code result} {@code hit} or {@code miss}, the {@code hibernate.cache.region.puts} counter and the
+ * {@code hibernate.cache.region.hit.ratio} gauge. They stay at zero while {@code hibernate.generate_statistics} is
+ * disabled. The query cache has one region per query, so its metrics are per query.
+ * <p>
+ * The {@code hazelcast.cluster.size} gauge and the {@code hazelcast.cluster.membership.changes} counters, tagged with
+ * {@code change} {@code added} or {@code removed}, follow the members of the cluster.
+ */
+@Configuration
+public class CacheMetricsConfiguration {
+
+    private static final List<String> QUERY_REGIONS = Arrays.asList(
+        BatimentQueryService.QUERY_CACHE_REGION,
+        EtageQueryService.QUERY_CACHE_REGION
+    );
+
+    private static final String CACHE_MANAGER_NAME = "cacheManager";
+
+    private final Logger log = LoggerFactory.getLogger(CacheMetricsConfiguration.class);
+
+    @Bean
+    public CacheMeterBinderProvider<HazelcastCache> hazelcastMapMeterBinderProvider() {
+        return new HazelcastMapMeterBinderProvider();
+    }
+
+    /**
+     * Bind the maps created after the startup, and those created while the application was starting.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindHazelcastMaps(ApplicationReadyEvent readyEvent) {
+        ApplicationContext context = readyEvent.getApplicationContext();
+        HazelcastInstance hazelcastInstance = context.getBean(HazelcastInstance.class);
+        CacheManager cacheManager = context.getBean(CACHE_MANAGER_NAME, CacheManager.class);
+        context.getBeanProvider(CacheMetricsRegistrar.class).ifAvailable(cacheMetricsRegistrar -> {
+            Consumer<String> bind = name -> cacheMetricsRegistrar.bindCacheToRegistry(cacheManager.getCache(name),
+                Tag.of("cacheManager", CACHE_MANAGER_NAME));
+            hazelcastInstance.addDistributedObjectListener(new DistributedObjectListener() {
+
+                @Override
+                public void distributedObjectCreated(DistributedObjectEvent event) {
+                    if (event.getDistributedObject() instanceof IMap) {
+                        log.debug("Binding the metrics of the {} map", event.getObjectName());
+                        bind.accept(String.valueOf(event.getObjectName()));
+                    }
+                }
+
+                @Override
+                public void distributedObjectDestroyed(DistributedObjectEvent event) {
+                }
+            });
+            hazelcastInstance.getDistributedObjects().stream()
+                .filter(IMap.class::isInstance)
+                .map(DistributedObject::getName)
+                .forEach(bind);
+        });
+    }
+
+    @Bean
+    public MeterBinder hazelcastClusterMetrics(HazelcastInstance hazelcastInstance) {
+        return registry -> {
+            Gauge.builder("hazelcast.cluster.size", hazelcastInstance, instance -> instance.getCluster().getMembers().size())
+                .description("The number of members of the Hazelcast cluster")
+                .register(registry);
+            Counter added = Counter.builder("hazelcast.cluster.membership.changes")
+                .tag("change", "added")
+                .description("The number of members which joined the Hazelcast cluster")
+                .register(registry);
+            Counter removed = Counter.builder("hazelcast.cluster.membership.changes")
+                .tag("change", "removed")
+                .description("The number of members which left the Hazelcast cluster")
+                .register(registry);
+            hazelcastInstance.getCluster().addMembershipListener(new MembershipAdapter() {
+
+                @Override
+                public void memberAdded(MembershipEvent membershipEvent) {
+                    log.info("Hazelcast member added: {}, {} members", membershipEvent.getMember(), membershipEvent.getMembers().size());
+                    added.increment();
+                }
+
+                @Override
+                public void memberRemoved(MembershipEvent membershipEvent) {
+                    log.info("Hazelcast member removed: {}, {} members", membershipEvent.getMember(), membershipEvent.getMembers().size());
+                    removed.increment();
+                }
+            });
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheRegionMetrics(EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Statistics statistics = sessionFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            if (!sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+                return;
+            }
+            List<String> domainRegions = sessionFactory.getCache().getCacheRegionNames().stream()
+                .filter(region -> sessionFactory.getCache().getRegion(region) instanceof DomainDataRegion)
+                .sorted()
+                .collect(Collectors.toList());
+            for (String region : domainRegions) {
+                bindRegion(registry, statistics, region, stats -> stats.getDomainDataRegionStatistics(region));
+            }
+            for (String region : QUERY_REGIONS) {
+                bindRegion(registry, statistics, region, stats -> stats.getQueryRegionStatistics(region));
+            }
+        };
+    }
+
+    private static void bindRegion(MeterRegistry registry, Statistics statistics, String region,
+                                   Function<Statistics, CacheRegionStatistics> regionStatistics) {
+        List<Tag> tags = Collections.singletonList(Tag.of("region", region));
+        FunctionCounter.builder("hibernate.cache.region.requests", statistics, count(regionStatistics, CacheRegionStatistics::getHitCount))
+            .tags(tags)
+            .tag("result", "hit")
+            .description("The number of entries found in the cache region")
+            .register(registry);
+        FunctionCounter.builder("hibernate.cache.region.requests", statistics, count(regionStatistics, CacheRegionStatistics::getMissCount))
+            .tags(tags)
+            .tag("result", "miss")
+            .description("The number of entries not found in the cache region")
+            .register(registry);
+        FunctionCounter.builder("hibernate.cache.region.puts", statistics, count(regionStatistics, CacheRegionStatistics::getPutCount))
+            .tags(tags)
+            .description("The number of entries put in the cache region")
+            .register(registry);
+        Gauge.builder("hibernate.cache.region.hit.ratio", statistics, stats -> hitRatio(regionStatistics.apply(stats)))
+            .tags(tags)
+            .description("The ratio of the entries found in the cache region")
+            .register(registry);
+    }
+
+    /**
+     * The statistics of a query region only exist once it has been used.
+     */
+    private static ToDoubleFunction<Statistics> count(Function<Statistics, CacheRegionStatistics> regionStatistics,
+                                                      ToLongFunction<CacheRegionStatistics> counter) {
+        return stats -> {
+            CacheRegionStatistics statistics = regionStatistics.apply(stats);
+            return statistics == null ? 0 : counter.applyAsLong(statistics);
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics statistics) {
+        if (statistics == null) {
+            return Double.NaN;
+        }
+        long requests = statistics.getHitCount() + statistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) statistics.getHitCount() / requests;
+    }
+
+    /**
+     * Binds the Hazelcast caches with {@link HazelcastMapMetrics}, before the provider of Spring Boot.
+     */
+    private static class HazelcastMapMeterBinderProvider implements CacheMeterBinderProvider<HazelcastCache>, Ordered {
+
+        @Override
+        public MeterBinder getMeterBinder(HazelcastCache cache, Iterable<Tag> tags) {
+            return new HazelcastMapMetrics(cache, tags);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.construction.config;
+
+import com.construction.domain.Authority;
+import com.construction.domain.User;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Hazelcast serializers of the values put in the caches, which would otherwise go through Java serialization.
+ * <p>
+ * The second-level cache stores the state of the entities, not the entities: each entry is a read-write
+ * {@code Item} wrapping a {@link StandardCacheEntryImpl} or a {@link CollectionCacheEntry}, whose fields are ids,
+ * strings, numbers and {@link Instant}s. The {@code usersByLogin} cache stores {@link User}s with their
+ * {@link Authority}s. Each serializer writes the fields one after the other, without any class descriptor.
+ * <p>
+ * The Hibernate wrappers only have package-private constructors, they are created by reflection.
+ */
+public final class CacheSerializers {
+
+    static final int INSTANT = 1001;
+
+    static final int READ_WRITE_ITEM = 1002;
+
+    static final int ENTITY_CACHE_ENTRY = 1003;
+
+    static final int COLLECTION_CACHE_ENTRY = 1004;
+
+    static final int USER = 1005;
+
+    static final int AUTHORITY = 1006;
+
+    static final String READ_WRITE_ITEM_CLASS = "org.hibernate.cache.spi.support.AbstractReadWriteAccess$Item";
+
+    private CacheSerializers() {
+    }
+
+    /**
+     * Register the serializers.
+     *
+     * @param serializationConfig the serialization configuration of the Hazelcast instance.
+     */
+    public static void register(SerializationConfig serializationConfig) {
+        serializationConfig
+            .addSerializerConfig(new SerializerConfig().setTypeClass(Instant.class).setImplementation(new InstantSerializer()))
+            .addSerializerConfig(new SerializerConfig().setTypeClass(ReadWriteItemSerializer.ITEM_CLASS).setImplementation(new ReadWriteItemSerializer()))
+            .addSerializerConfig(new SerializerConfig().setTypeClass(StandardCacheEntryImpl.class).setImplementation(new EntityCacheEntrySerializer()))
+            .addSerializerConfig(new SerializerConfig().setTypeClass(CollectionCacheEntry.class).setImplementation(new CollectionCacheEntrySerializer()))
+            .addSerializerConfig(new SerializerConfig().setTypeClass(User.class).setImplementation(new UserSerializer()))
+            .addSerializerConfig(new SerializerConfig().setTypeClass(Authority.class).setImplementation(new AuthoritySerializer()));
+    }
+
+    private static void writeState(ObjectDataOutput out, Serializable[] state) throws IOException {
+        out.writeInt(state.length);
+        for (Serializable value : state) {
+            out.writeObject(value);
+        }
+    }
+
+    private static Serializable[] readState(ObjectDataInput in) throws IOException {
+        Serializable[] state = new Serializable[in.readInt()];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = in.readObject();
+        }
+        return state;
+    }
+
+    private static <T> Constructor<T> constructor(Class<T> type, Class<?>... parameterTypes) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No constructor " + type.getName() + "(" + parameterTypes.length + " parameters)", e);
+        }
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("No field " + type.getName() + "." + name, e);
+        }
+    }
+
+    private static <T> T newInstance(Constructor<T> constructor, Object... arguments) throws IOException {
+        try {
+            return constructor.newInstance(arguments);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IOException("Could not create a " + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    private static Object get(Field field, Object object) throws IOException {
+        try {
+            return field.get(object);
+        } catch (IllegalAccessException e) {
+            throw new IOException("Could not read " + field.getName() + " in a " + object.getClass().getName(), e);
+        }
+    }
+
+    static class InstantSerializer implements StreamSerializer<Instant> {
+
+        @Override
+        public void write(ObjectDataOutput out, Instant instant) throws IOException {
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        }
+
+        @Override
+        public Instant read(ObjectDataInput in) throws IOException {
+            return Instant.ofEpochSecond(in.readLong(), in.readInt());
+        }
+
+        @Override
+        public int getTypeId() {
+            return INSTANT;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    /**
+     * The wrapper of the entries of the {@code READ_WRITE} regions, holding the version and the time of the put.
+     */
+    static class ReadWriteItemSerializer implements StreamSerializer<Object> {
+
+        @SuppressWarnings("unchecked")
+        static final Class<Object> ITEM_CLASS = (Class<Object>) itemClass();
+
+        private static final Constructor<Object> CONSTRUCTOR = constructor(ITEM_CLASS, Object.class, Object.class, long.class);
+
+        private static final Field VALUE = field(ITEM_CLASS, "value");
+
+        private static final Field VERSION = field(ITEM_CLASS, "version");
+
+        private static final Field TIMESTAMP = field(ITEM_CLASS, "timestamp");
+
+        private static Class<?> itemClass() {
+            try {
+                return Class.forName(READ_WRITE_ITEM_CLASS);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("No " + READ_WRITE_ITEM_CLASS, e);
+            }
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, Object item) throws IOException {
+            out.writeObject(get(VALUE, item));
+            out.writeObject(get(VERSION, item));
+            out.writeLong((Long) get(TIMESTAMP, item));
+        }
+
+        @Override
+        public Object read(ObjectDataInput in) throws IOException {
+            Object value = in.readObject();
+            Object version = in.readObject();
+            return newInstance(CONSTRUCTOR, value, version, in.readLong());
+        }
+
+        @Override
+        public int getTypeId() {
+            return READ_WRITE_ITEM;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    static class EntityCacheEntrySerializer implements StreamSerializer<StandardCacheEntryImpl> {
+
+        private static final Constructor<StandardCacheEntryImpl> CONSTRUCTOR =
+            constructor(StandardCacheEntryImpl.class, Serializable[].class, String.class, Object.class);
+
+        @Override
+        public void write(ObjectDataOutput out, StandardCacheEntryImpl entry) throws IOException {
+            writeState(out, entry.getDisassembledState());
+            out.writeUTF(entry.getSubclass());
+            out.writeObject(entry.getVersion());
+        }
+
+        @Override
+        public StandardCacheEntryImpl read(ObjectDataInput in) throws IOException {
+            Serializable[] state = readState(in);
+            String subclass = in.readUTF();
+            return newInstance(CONSTRUCTOR, state, subclass, in.readObject());
+        }
+
+        @Override
+        public int getTypeId() {
+            return ENTITY_CACHE_ENTRY;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    static class CollectionCacheEntrySerializer implements StreamSerializer<CollectionCacheEntry> {
+
+        private static final Constructor<CollectionCacheEntry> CONSTRUCTOR = constructor(CollectionCacheEntry.class, Serializable.class);
+
+        @Override
+        public void write(ObjectDataOutput out, CollectionCacheEntry entry) throws IOException {
+            writeState(out, entry.getState());
+        }
+
+        @Override
+        public CollectionCacheEntry read(ObjectDataInput in) throws IOException {
+            return newInstance(CONSTRUCTOR, (Object) readState(in));
+        }
+
+        @Override
+        public int getTypeId() {
+            return COLLECTION_CACHE_ENTRY;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    /**
+     * The authorities are read back as a plain set, the {@code usersByLogin} cache holds detached users.
+     */
+    static class UserSerializer implements StreamSerializer<User> {
+
+        @Override
+        public void write(ObjectDataOutput out, User user) throws IOException {
+            out.writeUTF(user.getId());
+            out.writeUTF(user.getLogin());
+            out.writeUTF(user.getFirstName());
+            out.writeUTF(user.getLastName());
+            out.writeUTF(user.getEmail());
+            out.writeBoolean(user.getActivated());
+            out.writeUTF(user.getLangKey());
+            out.writeUTF(user.getImageUrl());
+            out.writeUTF(user.getCreatedBy());
+            out.writeObject(user.getCreatedDate());
+            out.writeUTF(user.getLastModifiedBy());
+            out.writeObject(user.getLastModifiedDate());
+            out.writeInt(user.getAuthorities().size());
+            for (Authority authority : user.getAuthorities()) {
+                out.writeUTF(authority.getName());
+            }
+        }
+
+        @Override
+        public User read(ObjectDataInput in) throws IOException {
+            User user = new User();
+            user.setId(in.readUTF());
+            user.setLogin(in.readUTF());
+            user.setFirstName(in.readUTF());
+            user.setLastName(in.readUTF());
+            user.setEmail(in.readUTF());
+            user.setActivated(in.readBoolean());
+            user.setLangKey(in.readUTF());
+            user.setImageUrl(in.readUTF());
+            user.setCreatedBy(in.readUTF());
+            user.setCreatedDate(in.readObject());
+            user.setLastModifiedBy(in.readUTF());
+            user.setLastModifiedDate(in.readObject());
+            int size = in.readInt();
+            Set<Authority> authorities = new HashSet<>(size);
+            for (int i = 0; i < size; i++) {
+                Authority authority = new Authority();
+                authority.setName(in.readUTF());
+                authorities.add(authority);
+            }
+            user.setAuthorities(authorities);
+            return user;
+        }
+
+        @Override
+        public int getTypeId() {
+            return USER;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    static class AuthoritySerializer implements StreamSerializer<Authority> {
+
+        @Override
+        public void write(ObjectDataOutput out, Authority authority) throws IOException {
+            out.writeUTF(authority.getName());
+        }
+
+        @Override
+        public Authority read(ObjectDataInput in) throws IOException {
+            Authority authority = new Authority();
+            authority.setName(in.readUTF());
+            return authority;
+        }
+
+        @Override
+        public int getTypeId() {
+            return AUTHORITY;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
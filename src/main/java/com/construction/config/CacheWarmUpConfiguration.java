@@ -0,0 +1,46 @@
+package com.construction.config;
+
+import com.construction.service.CacheWarmUpService;
+
+import com.netflix.appinfo.HealthCheckHandler;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.netflix.eureka.EurekaHealthCheckHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Holds the instance {@code STARTING} in Eureka until the {@link CacheWarmUpService} is complete.
+ * <p>
+ * Replaces the health check handler of Spring Cloud, which maps the health of the application to the status of the
+ * instance: the status it reports is only used once the warm-up is over.
+ */
+@Configuration
+@ConditionalOnProperty(value = "eureka.client.enabled", matchIfMissing = true)
+public class CacheWarmUpConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(value = "eureka.client.healthcheck.enabled")
+    public HealthCheckHandler eurekaHealthCheckHandler(StatusAggregator statusAggregator, CacheWarmUpService cacheWarmUpService) {
+        return new WarmUpHealthCheckHandler(statusAggregator, cacheWarmUpService);
+    }
+
+    static class WarmUpHealthCheckHandler extends EurekaHealthCheckHandler {
+
+        private final CacheWarmUpService cacheWarmUpService;
+
+        WarmUpHealthCheckHandler(StatusAggregator statusAggregator, CacheWarmUpService cacheWarmUpService) {
+            super(statusAggregator);
+            this.cacheWarmUpService = cacheWarmUpService;
+        }
+
+        @Override
+        protected InstanceStatus getHealthStatus() {
+            if (!cacheWarmUpService.isComplete()) {
+                return InstanceStatus.STARTING;
+            }
+            return super.getHealthStatus();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.construction.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.spring.cache.HazelcastCache;
+import com.hazelcast.spring.cache.HazelcastCacheManager;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link HazelcastCacheManager} counting the hits and the misses of its caches on this member.
+ * <p>
+ * Hazelcast does not count the misses of a map: they are counted here, for the reads going through the cache
+ * abstraction. A hit may come from the near cache of the map, or from the map itself.
+ */
+public class CountingHazelcastCacheManager extends HazelcastCacheManager {
+
+    private final ConcurrentMap<String, CountingHazelcastCache> caches = new ConcurrentHashMap<>();
+
+    public CountingHazelcastCacheManager(HazelcastInstance hazelcastInstance) {
+        super(hazelcastInstance);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> new CountingHazelcastCache(getHazelcastInstance().getMap(cacheName)));
+    }
+
+    /**
+     * {@link HazelcastCache} counting its hits and its misses. A {@code null} value stored in the cache is a hit.
+     */
+    public static class CountingHazelcastCache extends HazelcastCache {
+
+        private final LongAdder hits = new LongAdder();
+
+        private final LongAdder misses = new LongAdder();
+
+        public CountingHazelcastCache(IMap<Object, Object> map) {
+            super(map);
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            ValueWrapper value = super.get(key);
+            count(value != null);
+            return value;
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            T value = super.get(key, type);
+            count(value != null);
+            return value;
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            boolean[] loaded = {false};
+            T value = super.get(key, () -> {
+                loaded[0] = true;
+                return valueLoader.call();
+            });
+            count(!loaded[0]);
+            return value;
+        }
+
+        private void count(boolean hit) {
+            (hit ? hits : misses).increment();
+        }
+
+        /**
+         * @return the number of reads which found the key.
+         */
+        public long getHitCount() {
+            return hits.sum();
+        }
+
+        /**
+         * @return the number of reads which did not find the key.
+         */
+        public long getMissCount() {
+            return misses.sum();
+        }
+    }
+}
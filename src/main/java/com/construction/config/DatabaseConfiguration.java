@@ -1,8 +1,13 @@
 package com.construction.config;
 
 import io.github.jhipster.config.JHipsterConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.internal.StatisticsInitiator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -18,4 +23,19 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 public class DatabaseConfiguration {
 
     private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
+
+    /*
+    The entity, collection and second-level cache counters are published by Spring Boot, the queries only have a total.
+    */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateQueryMetricsCustomizer(ObjectProvider<MeterRegistry> meterRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.QueryMetrics queryMetrics = applicationProperties.getQueryMetrics();
+        return hibernateProperties -> hibernateProperties.put(StatisticsInitiator.STATS_BUILDER,
+            new QueryMetricsStatistics.Factory(meterRegistry, queryMetrics.getSlowQueryThresholdMs(), queryMetrics.getMaxQueries()));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatementCountCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountInspector());
+    }
 }
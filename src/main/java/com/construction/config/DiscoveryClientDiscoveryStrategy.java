@@ -0,0 +1,97 @@
+package com.construction.config;
+
+import com.hazelcast.config.properties.PropertyDefinition;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.discovery.AbstractDiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import com.hazelcast.spi.discovery.DiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryStrategyFactory;
+import com.hazelcast.spi.discovery.SimpleDiscoveryNode;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hazelcast discovery strategy finding the members of the cluster among the instances of the service registered in
+ * the Spring Cloud {@link DiscoveryClient}.
+ * <p>
+ * The registry is read each time Hazelcast looks for members: when the member joins, and periodically afterwards to
+ * merge the clusters which started apart, such as the instances started at the same time while scaling out.
+ */
+public class DiscoveryClientDiscoveryStrategy extends AbstractDiscoveryStrategy {
+
+    private final DiscoveryClient discoveryClient;
+
+    private final String serviceId;
+
+    private final Function<ServiceInstance, InetSocketAddress> memberAddress;
+
+    public DiscoveryClientDiscoveryStrategy(ILogger logger, DiscoveryClient discoveryClient, String serviceId,
+                                            Function<ServiceInstance, InetSocketAddress> memberAddress) {
+        super(logger, Collections.emptyMap());
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.memberAddress = memberAddress;
+    }
+
+    @Override
+    public Iterable<DiscoveryNode> discoverNodes() {
+        List<DiscoveryNode> nodes = new ArrayList<>();
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+            InetSocketAddress address = memberAddress.apply(instance);
+            if (address.isUnresolved()) {
+                getLogger().warning("Could not resolve the Hazelcast member " + address + " of the instance " + instance.getInstanceId());
+            } else {
+                nodes.add(new SimpleDiscoveryNode(new Address(address)));
+            }
+        }
+        getLogger().fine("Discovered the Hazelcast members " + nodes);
+        return nodes;
+    }
+
+    /**
+     * Factory of the strategy, given to the Hazelcast configuration as an instance.
+     */
+    public static class Factory implements DiscoveryStrategyFactory {
+
+        private final DiscoveryClient discoveryClient;
+
+        private final String serviceId;
+
+        private final Function<ServiceInstance, InetSocketAddress> memberAddress;
+
+        /**
+         * @param discoveryClient the client of the service registry.
+         * @param serviceId       the id of this service in the registry.
+         * @param memberAddress   the address of the Hazelcast member of an instance of the service.
+         */
+        public Factory(DiscoveryClient discoveryClient, String serviceId, Function<ServiceInstance, InetSocketAddress> memberAddress) {
+            this.discoveryClient = discoveryClient;
+            this.serviceId = serviceId;
+            this.memberAddress = memberAddress;
+        }
+
+        @Override
+        public Class<? extends DiscoveryStrategy> getDiscoveryStrategyType() {
+            return DiscoveryClientDiscoveryStrategy.class;
+        }
+
+        @Override
+        public DiscoveryStrategy newDiscoveryStrategy(DiscoveryNode discoveryNode, ILogger logger, Map<String, Comparable> properties) {
+            return new DiscoveryClientDiscoveryStrategy(logger, discoveryClient, serviceId, memberAddress);
+        }
+
+        @Override
+        public Collection<PropertyDefinition> getConfigurationProperties() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.construction.config;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.spring.cache.HazelcastCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+
+/**
+ * {@link HazelcastCacheMetrics} completed with the removals of the map.
+ * <p>
+ * Hazelcast does not count the misses of a map, so no miss counter is published: the misses of the Hibernate regions
+ * are in the {@code hibernate.cache.region.requests} counters.
+ * <p>
+ * The {@code cache.near.hit.ratio} gauge is the hit ratio of the near cache of the map. The {@code cache.hit.ratio} gauge
+ * is the hit ratio of the map itself, behind its near cache: the reads counted by the {@link CountingHazelcastCacheManager}
+ * less the near cache hits. It is only known for the maps read through the cache abstraction, such as the user caches;
+ * the Hibernate regions have the {@code hibernate.cache.region.hit.ratio} gauge.
+ */
+public class HazelcastMapMetrics extends HazelcastCacheMetrics {
+
+    private final IMap<?, ?> map;
+
+    private final HazelcastCache cache;
+
+    public HazelcastMapMetrics(HazelcastCache cache, Iterable<Tag> tags) {
+        super(cache.getNativeCache(), tags);
+        this.map = cache.getNativeCache();
+        this.cache = cache;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        super.bindImplementationSpecificMetrics(registry);
+        FunctionCounter.builder("cache.removals", map, cache -> cache.getLocalMapStats().getRemoveOperationCount())
+            .tags(getTagsWithCacheName())
+            .description("The number of entries removed from the cache")
+            .register(registry);
+        if (cache instanceof CountingHazelcastCacheManager.CountingHazelcastCache) {
+            CountingHazelcastCacheManager.CountingHazelcastCache countingCache = (CountingHazelcastCacheManager.CountingHazelcastCache) cache;
+            Gauge.builder("cache.hit.ratio", countingCache, this::mapHitRatio)
+                .tags(getTagsWithCacheName())
+                .description("The ratio of the entries found in the map, behind its near cache")
+                .register(registry);
+        }
+        if (map.getLocalMapStats().getNearCacheStats() != null) {
+            Gauge.builder("cache.near.hit.ratio", map, cache -> {
+                NearCacheStats stats = cache.getLocalMapStats().getNearCacheStats();
+                return hitRatio(stats.getHits(), stats.getHits() + stats.getMisses());
+            })
+                .tags(getTagsWithCacheName())
+                .description("The ratio of the entries found in the near cache")
+                .register(registry);
+        }
+    }
+
+    /**
+     * The near cache hits are read first: a read is counted by the cache once its near cache lookup is done.
+     */
+    private double mapHitRatio(CountingHazelcastCacheManager.CountingHazelcastCache countingCache) {
+        NearCacheStats nearCacheStats = map.getLocalMapStats().getNearCacheStats();
+        long nearCacheHits = nearCacheStats == null ? 0 : nearCacheStats.getHits();
+        long hits = countingCache.getHitCount();
+        long requests = hits + countingCache.getMissCount();
+        if (requests == 0) {
+            return Double.NaN;
+        }
+        return hitRatio(hits - nearCacheHits, requests - nearCacheHits);
+    }
+
+    private static double hitRatio(long hits, long requests) {
+        return requests <= 0 ? Double.NaN : (double) hits / requests;
+    }
+}
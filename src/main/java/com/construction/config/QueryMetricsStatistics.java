@@ -0,0 +1,184 @@
+package com.construction.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.hibernate.QueryException;
+import org.hibernate.engine.query.spi.ParameterParser;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate statistics publishing the statistics of each query as meters, and logging the slow queries.
+ * <p>
+ * Each HQL, criteria or native query gets the {@code hibernate.query.execution} timer, the
+ * {@code hibernate.query.execution.max} gauge and the {@code hibernate.query.execution.rows} counter, tagged with
+ * the query, registered the first time it is executed. They read the statistics Hibernate already keeps, the queries
+ * cost nothing more. Past {@code maxQueries} queries, the new queries are no longer published. The registry is looked
+ * up at the first execution: it depends on the entity manager factory, which creates the statistics.
+ * <p>
+ * The criteria queries must bind their numeric literals, with {@code hibernate.criteria.literal_handling_mode: bind}:
+ * otherwise each value is inlined and gives a query of its own.
+ * <p>
+ * The queries slower than the threshold are logged with their number of bound parameters and the endpoint of the
+ * request which ran them, never with their values.
+ */
+public class QueryMetricsStatistics extends StatisticsImpl {
+
+    private static final String NO_ENDPOINT = "no request";
+
+    private final Logger log = LoggerFactory.getLogger(QueryMetricsStatistics.class);
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    private final long slowQueryThresholdMs;
+
+    private final int maxQueries;
+
+    private final Set<String> meteredQueries = ConcurrentHashMap.newKeySet();
+
+    public QueryMetricsStatistics(SessionFactoryImplementor sessionFactory, ObjectProvider<MeterRegistry> registry,
+                                  long slowQueryThresholdMs, int maxQueries) {
+        super(sessionFactory);
+        this.registry = registry;
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+        this.maxQueries = maxQueries;
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        if (hql == null) {
+            return;
+        }
+        if (!meteredQueries.contains(hql) && meteredQueries.size() < maxQueries && meteredQueries.add(hql)) {
+            bindQuery(hql);
+        }
+        if (slowQueryThresholdMs > 0 && time >= slowQueryThresholdMs) {
+            log.warn("Slow query: {} ms, {} rows, {} bound parameters, from {}: {}",
+                time, rows, countParameters(hql), currentEndpoint(), hql);
+        }
+    }
+
+    private void bindQuery(String hql) {
+        MeterRegistry registry = this.registry.getObject();
+        FunctionTimer.builder("hibernate.query.execution", this,
+            statistics -> statistics.getQueryStatistics(hql).getExecutionCount(),
+            statistics -> statistics.getQueryStatistics(hql).getExecutionTotalTime(), TimeUnit.MILLISECONDS)
+            .tag("query", hql)
+            .description("The executions of the query")
+            .register(registry);
+        TimeGauge.builder("hibernate.query.execution.max", this, TimeUnit.MILLISECONDS,
+            statistics -> statistics.getQueryStatistics(hql).getExecutionMaxTime())
+            .tag("query", hql)
+            .description("The longest execution of the query")
+            .register(registry);
+        FunctionCounter.builder("hibernate.query.execution.rows", this,
+            statistics -> statistics.getQueryStatistics(hql).getExecutionRowCount())
+            .tag("query", hql)
+            .description("The number of rows returned by the query")
+            .register(registry);
+    }
+
+    /**
+     * The expanded {@code IN} lists have one parameter per element, so this is the number of values bound.
+     */
+    static int countParameters(String query) {
+        int[] count = {0};
+        try {
+            ParameterParser.parse(query, new ParameterParser.Recognizer() {
+
+                @Override
+                public void outParameter(int position) {
+                    count[0]++;
+                }
+
+                @Override
+                public void ordinalParameter(int position) {
+                    count[0]++;
+                }
+
+                @Override
+                public void namedParameter(String name, int position) {
+                    count[0]++;
+                }
+
+                @Override
+                public void jpaPositionalParameter(int name, int position) {
+                    count[0]++;
+                }
+
+                @Override
+                public void other(char character) {
+                }
+
+                @Override
+                public void complete() {
+                }
+            });
+        } catch (QueryException e) {
+            return -1;
+        }
+        return count[0];
+    }
+
+    /**
+     * The mapping of the handler, such as {@code GET /api/batiments/{id}}, rather than the URI of the request.
+     */
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return NO_ENDPOINT;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        if (StringUtils.isEmpty(request.getMethod())) {
+            return NO_ENDPOINT;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    /**
+     * Factory of the statistics, given to Hibernate as an instance.
+     */
+    public static class Factory implements StatisticsFactory {
+
+        private final ObjectProvider<MeterRegistry> registry;
+
+        private final long slowQueryThresholdMs;
+
+        private final int maxQueries;
+
+        /**
+         * @param registry             the registry of the query meters.
+         * @param slowQueryThresholdMs the time from which a query is logged, {@code 0} to log none.
+         * @param maxQueries           the maximum number of queries published.
+         */
+        public Factory(ObjectProvider<MeterRegistry> registry, long slowQueryThresholdMs, int maxQueries) {
+            this.registry = registry;
+            this.slowQueryThresholdMs = slowQueryThresholdMs;
+            this.maxQueries = maxQueries;
+        }
+
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new QueryMetricsStatistics(sessionFactory, registry, slowQueryThresholdMs, maxQueries);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.construction.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link DataSource} sending the read-only transactions to a replica, and the other ones to the primary.
+ * <p>
+ * The replica is checked periodically: while its connection fails, or while its replication lag is unknown or greater
+ * than {@link ApplicationProperties.Replica#getMaxLagSeconds()}, the read-only transactions go to the primary too.
+ * <p>
+ * The data source is chosen when the connection is acquired, so it must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager acquires the
+ * connection before the transaction is marked as read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource replica;
+
+    private final ApplicationProperties.Replica properties;
+
+    private volatile boolean replicaAvailable;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ApplicationProperties.Replica properties) {
+        this.replica = replica;
+        this.properties = properties;
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(Route.PRIMARY, primary);
+        targetDataSources.put(Route.REPLICA, replica);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+
+    /**
+     * Get the data source of the current transaction.
+     *
+     * @return {@link Route#REPLICA} for a read-only transaction while the replica is available, {@link Route#PRIMARY} otherwise.
+     */
+    public Route currentRoute() {
+        if (replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    /**
+     * Check the connection to the replica and its replication lag.
+     */
+    @Scheduled(fixedDelayString = "#{${application.replica.check-interval-seconds:5} * 1000}")
+    public void checkReplica() {
+        boolean available;
+        try (Connection connection = replica.getConnection()) {
+            available = !StringUtils.hasText(properties.getLagQuery()) || isUpToDate(connection);
+        } catch (SQLException e) {
+            log.debug("Could not connect to the replica: {}", e.getMessage());
+            available = false;
+        }
+        if (available != replicaAvailable) {
+            if (available) {
+                log.info("The replica is available, the read-only transactions are sent to it");
+            } else {
+                log.warn("The replica is not available, the read-only transactions are sent to the primary");
+            }
+            replicaAvailable = available;
+        }
+    }
+
+    private boolean isUpToDate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+            if (!resultSet.next()) {
+                return false;
+            }
+            long lag = resultSet.getLong(1);
+            if (resultSet.wasNull() || lag > properties.getMaxLagSeconds()) {
+                log.debug("The replica is behind the primary: {} seconds", resultSet.wasNull() ? null : lag);
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.construction.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Filter counting the SQL statements of each request with the {@link StatementCountInspector}.
+ * <p>
+ * The count is published in the {@code http.server.requests.statements} summary, tagged with the {@code method} and
+ * the {@code uri} of the request like the {@code http.server.requests} timer. An identical statement run
+ * {@code repeatedStatementThreshold} times in the same request is logged as a possible N+1 select, and counted in
+ * the {@code http.server.requests.repeated.statements} counter. The requests over the budget are logged.
+ * <p>
+ * With the debug header enabled, the response gets the {@value #STATEMENT_COUNT_HEADER} and
+ * {@value #REPEATED_STATEMENT_COUNT_HEADER} headers, written before the body. The statements of the asynchronous part of
+ * a request, such as the streamed exports, are not counted.
+ */
+public class StatementCountFilter extends OncePerRequestFilter implements Ordered {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-Statement-Count";
+
+    public static final String REPEATED_STATEMENT_COUNT_HEADER = "X-Repeated-Statement-Count";
+
+    private final Logger log = LoggerFactory.getLogger(StatementCountFilter.class);
+
+    private final MeterRegistry registry;
+
+    private final ApplicationProperties.StatementBudget statementBudget;
+
+    public StatementCountFilter(MeterRegistry registry, ApplicationProperties.StatementBudget statementBudget) {
+        this.registry = registry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        StatementCountInspector.Statements statements = StatementCountInspector.begin(statementBudget.getRepeatedStatementThreshold());
+        try {
+            if (statementBudget.isDebugHeader()) {
+                StatementCountResponse countResponse = new StatementCountResponse(response, statements);
+                filterChain.doFilter(request, countResponse);
+                countResponse.writeHeaders();
+            } else {
+                filterChain.doFilter(request, response);
+            }
+        } finally {
+            StatementCountInspector.end();
+            record(request, response, statements);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, StatementCountInspector.Statements statements) {
+        Tag method = WebMvcTags.method(request);
+        Tag uri = WebMvcTags.uri(request, response);
+        Tags tags = Tags.of(method, uri);
+        String endpoint = method.getValue() + " " + uri.getValue();
+        DistributionSummary.builder("http.server.requests.statements")
+            .tags(tags)
+            .description("The number of SQL statements run by the request")
+            .register(registry)
+            .record(statements.getCount());
+        if (!statements.getRepeated().isEmpty()) {
+            Counter.builder("http.server.requests.repeated.statements")
+                .tags(tags)
+                .description("The number of identical SQL statements run repeatedly by the request, typically an N+1 select")
+                .register(registry)
+                .increment(statements.getRepeated().size());
+            for (String sql : statements.getRepeated()) {
+                log.warn("Possible N+1 select, run {} times by {}: {}", statements.getRuns(sql), endpoint, sql);
+            }
+        }
+        if (statementBudget.getMaxStatements() > 0 && statements.getCount() > statementBudget.getMaxStatements()) {
+            log.warn("{} statements run by {}, over the budget of {}", statements.getCount(), endpoint, statementBudget.getMaxStatements());
+        }
+    }
+
+    /**
+     * Before the security filters, so that the statements of the authentication are counted.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    /**
+     * Response writing the count headers when the body is written, the headers of a committed response being ignored.
+     */
+    private static class StatementCountResponse extends HttpServletResponseWrapper {
+
+        private final StatementCountInspector.Statements statements;
+
+        private boolean headersWritten;
+
+        StatementCountResponse(HttpServletResponse response, StatementCountInspector.Statements statements) {
+            super(response);
+            this.statements = statements;
+        }
+
+        void writeHeaders() {
+            if (!headersWritten && !isCommitted()) {
+                headersWritten = true;
+                setHeader(STATEMENT_COUNT_HEADER, String.valueOf(statements.getCount()));
+                setHeader(REPEATED_STATEMENT_COUNT_HEADER, String.valueOf(statements.getRepeated().size()));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
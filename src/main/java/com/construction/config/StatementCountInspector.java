@@ -0,0 +1,97 @@
+package com.construction.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate statement inspector counting the SQL statements prepared by the current thread, between
+ * {@link #begin(int)} and {@link #end()}.
+ * <p>
+ * Each statement is counted once when it is prepared: a JDBC batch is one statement, and the entities found in the
+ * second-level cache run none. The statements run by the other threads, such as the asynchronous tasks, are not
+ * counted.
+ */
+public class StatementCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<Statements> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Start counting the statements of the current thread.
+     *
+     * @param repeatedThreshold the number of runs from which an identical statement is reported as repeated.
+     * @return the statements counted until {@link #end()}.
+     */
+    public static Statements begin(int repeatedThreshold) {
+        Statements statements = new Statements(repeatedThreshold);
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    /**
+     * Stop counting the statements of the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Statements statements = CURRENT.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * The statements prepared by a thread, only read and written by that thread.
+     */
+    public static class Statements {
+
+        private final int repeatedThreshold;
+
+        private final Map<String, Integer> runs = new HashMap<>();
+
+        private final List<String> repeated = new ArrayList<>();
+
+        private int count;
+
+        Statements(int repeatedThreshold) {
+            this.repeatedThreshold = repeatedThreshold;
+        }
+
+        void add(String sql) {
+            count++;
+            if (runs.merge(sql, 1, Integer::sum) == repeatedThreshold) {
+                repeated.add(sql);
+            }
+        }
+
+        /**
+         * @return the number of statements prepared.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return the statements run at least the repeated threshold times, typically the selects of an N+1.
+         */
+        public List<String> getRepeated() {
+            return Collections.unmodifiableList(repeated);
+        }
+
+        /**
+         * @param sql a statement.
+         * @return the number of times it was prepared.
+         */
+        public int getRuns(String sql) {
+            return runs.getOrDefault(sql, 0);
+        }
+    }
+}
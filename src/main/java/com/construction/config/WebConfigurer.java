@@ -1,6 +1,7 @@
 package com.construction.config;
 
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.web.server.*;
@@ -55,4 +56,9 @@ public class WebConfigurer implements ServletContextInitializer {
         return new CorsFilter(source);
     }
 
+    @Bean
+    public StatementCountFilter statementCountFilter(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new StatementCountFilter(meterRegistry, applicationProperties.getStatementBudget());
+    }
+
 }
@@ -1,8 +1,10 @@
 package com.construction.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -15,14 +17,21 @@ import java.io.Serializable;
 @Entity
 @Table(name = "appartement")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 public class Appartement implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
+    @Version
+    @JsonIgnore
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @NotNull
     @Column(name = "name", nullable = false)
     private String name;
@@ -30,7 +39,7 @@ public class Appartement implements Serializable {
     @Column(name = "numeroappart")
     private Integer numeroappart;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = "appartements", allowSetters = true)
     private Etage etage;
 
@@ -43,6 +52,14 @@ public class Appartement implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
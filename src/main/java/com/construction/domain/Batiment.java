@@ -1,7 +1,13 @@
 package com.construction.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -16,20 +22,29 @@ import java.util.Set;
 @Entity
 @Table(name = "batiment")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 public class Batiment implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
+    @Version
+    @JsonIgnore
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @NotNull
     @Column(name = "name", nullable = false)
     private String name;
 
     @OneToMany(mappedBy = "batiment")
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 16)
+    @LazyCollection(LazyCollectionOption.EXTRA)
     private Set<Etage> etages = new HashSet<>();
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -41,6 +56,14 @@ public class Batiment implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -63,14 +86,24 @@ public class Batiment implements Serializable {
         return this;
     }
 
+    /**
+     * Add a etage, by setting its owning side. The etages are only updated if they are already loaded.
+     */
     public Batiment addEtage(Etage etage) {
-        this.etages.add(etage);
+        if (Hibernate.isInitialized(this.etages)) {
+            this.etages.add(etage);
+        }
         etage.setBatiment(this);
         return this;
     }
 
+    /**
+     * Remove a etage, by clearing its owning side. The etages are only updated if they are already loaded.
+     */
     public Batiment removeEtage(Etage etage) {
-        this.etages.remove(etage);
+        if (Hibernate.isInitialized(this.etages)) {
+            this.etages.remove(etage);
+        }
         etage.setBatiment(null);
         return this;
     }
@@ -1,8 +1,14 @@
 package com.construction.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -17,23 +23,32 @@ import java.util.Set;
 @Entity
 @Table(name = "etage")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 public class Etage implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
+    @Version
+    @JsonIgnore
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @NotNull
     @Column(name = "numeroetage", nullable = false)
     private Integer numeroetage;
 
     @OneToMany(mappedBy = "etage")
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 16)
+    @LazyCollection(LazyCollectionOption.EXTRA)
     private Set<Appartement> appartements = new HashSet<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = "etages", allowSetters = true)
     private Batiment batiment;
 
@@ -46,6 +61,14 @@ public class Etage implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public Integer getNumeroetage() {
         return numeroetage;
     }
@@ -68,14 +91,24 @@ public class Etage implements Serializable {
         return this;
     }
 
+    /**
+     * Add a appartement, by setting its owning side. The appartements are only updated if they are already loaded.
+     */
     public Etage addAppartement(Appartement appartement) {
-        this.appartements.add(appartement);
+        if (Hibernate.isInitialized(this.appartements)) {
+            this.appartements.add(appartement);
+        }
         appartement.setEtage(this);
         return this;
     }
 
+    /**
+     * Remove a appartement, by clearing its owning side. The appartements are only updated if they are already loaded.
+     */
     public Etage removeAppartement(Appartement appartement) {
-        this.appartements.remove(appartement);
+        if (Hibernate.isInitialized(this.appartements)) {
+            this.appartements.remove(appartement);
+        }
         appartement.setEtage(null);
         return this;
     }
@@ -10,5 +10,5 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AppartementRepository extends JpaRepository<Appartement, Long> {
+public interface AppartementRepository extends JpaRepository<Appartement, Long>, JpaSpecificationExecutor<Appartement> {
 }
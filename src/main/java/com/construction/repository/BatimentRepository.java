@@ -1,14 +1,32 @@
 package com.construction.repository;
 
 import com.construction.domain.Batiment;
+import com.construction.service.dto.BatimentSummaryDTO;
 
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Spring Data  repository for the Batiment entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface BatimentRepository extends JpaRepository<Batiment, Long> {
+public interface BatimentRepository extends JpaRepository<Batiment, Long>, JpaSpecificationExecutor<Batiment> {
+
+    @Query("select batiment.id from Batiment batiment")
+    List<Long> findAllIds();
+
+    @Query("select new com.construction.service.dto.BatimentSummaryDTO(batiment.id, batiment.name, count(distinct etage.id), count(appartement.id)) " +
+        "from Batiment batiment left join batiment.etages etage left join etage.appartements appartement " +
+        "group by batiment.id, batiment.name")
+    List<BatimentSummaryDTO> findAllSummaries();
+
+    @Query("select new com.construction.service.dto.BatimentSummaryDTO(batiment.id, batiment.name, count(distinct etage.id), count(appartement.id)) " +
+        "from Batiment batiment left join batiment.etages etage left join etage.appartements appartement " +
+        "where batiment.id in :ids group by batiment.id, batiment.name")
+    List<BatimentSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
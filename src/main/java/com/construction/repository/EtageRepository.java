@@ -3,12 +3,28 @@ package com.construction.repository;
 import com.construction.domain.Etage;
 
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Spring Data  repository for the Etage entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface EtageRepository extends JpaRepository<Etage, Long> {
+public interface EtageRepository extends JpaRepository<Etage, Long>, JpaSpecificationExecutor<Etage> {
+
+    @Query("select distinct etage from Etage etage left join fetch etage.appartements where etage.batiment.id = :batimentId")
+    List<Etage> findAllWithAppartementsByBatimentId(@Param("batimentId") Long batimentId);
+
+    @Query("select etage.id from Etage etage")
+    List<Long> findAllIds();
+
+    /**
+     * @return the id of each etage with the id of its batiment, the etages without batiment being left out.
+     */
+    @Query("select etage.id, etage.batiment.id from Etage etage where etage.id in :ids")
+    List<Object[]> findBatimentIdsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,9 +1,10 @@
 package com.construction.repository;
 
 import com.construction.domain.PersistentAuditEvent;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.Instant;
 import java.util.List;
@@ -17,7 +18,14 @@ public interface PersistenceAuditEventRepository extends JpaRepository<Persisten
 
     List<PersistentAuditEvent> findByPrincipalAndAuditEventDateAfterAndAuditEventType(String principal, Instant after, String type);
 
-    Page<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
+    @Query("select persistentAuditEvent from PersistentAuditEvent persistentAuditEvent")
+    Slice<PersistentAuditEvent> findSlice(Pageable pageable);
+
+    Slice<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
+
+    long countByAuditEventDateBetween(Instant fromDate, Instant toDate);
 
     List<PersistentAuditEvent> findByAuditEventDateBefore(Instant before);
+
+    Slice<PersistentAuditEvent> findAllByIdLessThan(Long id, Pageable pageable);
 }
@@ -0,0 +1,223 @@
+package com.construction.service;
+
+import com.construction.config.ApplicationProperties.CountStrategy;
+import com.construction.domain.Appartement;
+import com.construction.domain.Appartement_;
+import com.construction.domain.Batiment;
+import com.construction.domain.Batiment_;
+import com.construction.domain.Etage;
+import com.construction.domain.Etage_;
+import com.construction.repository.AppartementRepository;
+import com.construction.service.dto.AppartementCriteria;
+import com.construction.service.dto.AppartementDTO;
+import com.construction.service.dto.EtageCriteria;
+import com.construction.service.mapper.AppartementMapper;
+import com.construction.service.mapper.BatimentMapper;
+import com.construction.service.mapper.EtageMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.Subgraph;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Service for executing complex queries for {@link Appartement} entities in the database.
+ * The main input is a {@link AppartementCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Page} or a {@link Slice} of {@link AppartementDTO} which fulfills the criteria.
+ * <p>
+ * {@code etageId} is compared to the {@code etage_id} foreign key, without joining the etage table,
+ * so that it is served by the {@code (etage_id, numeroappart)} index. The {@code etage.*} criteria join the etage table.
+ * <p>
+ * The etage, and its batiment, are only joined when they are expanded: otherwise only the {@code etage_id} is read.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AppartementQueryService extends SliceQueryService<Appartement> {
+
+    public static final String EXPAND_ETAGE = "etage";
+
+    public static final String EXPAND_ETAGE_BATIMENT = "etage.batiment";
+
+    public static final Set<String> EXPANDABLE = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(EXPAND_ETAGE, EXPAND_ETAGE_BATIMENT)));
+
+    private final Logger log = LoggerFactory.getLogger(AppartementQueryService.class);
+
+    private final AppartementRepository appartementRepository;
+
+    private final CountService countService;
+
+    private final AppartementMapper appartementMapper;
+
+    private final EtageMapper etageMapper;
+
+    private final BatimentMapper batimentMapper;
+
+    public AppartementQueryService(AppartementRepository appartementRepository, CountService countService, EntityManager entityManager,
+                                   AppartementMapper appartementMapper, EtageMapper etageMapper, BatimentMapper batimentMapper) {
+        super(entityManager, Appartement.class);
+        this.appartementRepository = appartementRepository;
+        this.countService = countService;
+        this.appartementMapper = appartementMapper;
+        this.etageMapper = etageMapper;
+        this.batimentMapper = batimentMapper;
+    }
+
+    /**
+     * Return the {@link AppartementDTO} with an id, fetching only its expanded relationships.
+     * @param id The id of the entity.
+     * @param expand The relationships to include, among {@link #EXPANDABLE}.
+     * @return the entity as a DTO, or an empty {@link Optional} if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AppartementDTO> findOne(Long id, Set<String> expand) {
+        log.debug("find one : {}, expand: {}", id, expand);
+        EntityGraph<Appartement> graph = createEntityGraph();
+        if (expand.contains(EXPAND_ETAGE)) {
+            Subgraph<Etage> etage = graph.addSubgraph(Appartement_.etage);
+            if (expand.contains(EXPAND_ETAGE_BATIMENT)) {
+                etage.addAttributeNodes(Etage_.BATIMENT);
+            }
+        }
+        return findOne(id, graph).map(appartement -> {
+            AppartementDTO appartementDTO = appartementMapper.toDto(appartement);
+            if (expand.contains(EXPAND_ETAGE) && appartement.getEtage() != null) {
+                appartementDTO.setEtage(etageMapper.toDto(appartement.getEtage()));
+                if (expand.contains(EXPAND_ETAGE_BATIMENT) && appartement.getEtage().getBatiment() != null) {
+                    appartementDTO.getEtage().setBatiment(batimentMapper.toDto(appartement.getEtage().getBatiment()));
+                }
+            }
+            return appartementDTO;
+        });
+    }
+
+    /**
+     * Return a {@link Page} or a {@link Slice} of {@link AppartementDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param countStrategy How the matching entities are counted.
+     * @param expand The relationships to include, among {@link #EXPANDABLE}.
+     * @return the matching entities as DTOs, in a {@link Page} unless the count strategy is {@code NONE}.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AppartementDTO> findByCriteria(AppartementCriteria criteria, Pageable page, CountStrategy countStrategy, Set<String> expand) {
+        log.debug("find by criteria : {}, page: {}, count: {}, expand: {}", criteria, page, countStrategy, expand);
+        final Specification<Appartement> specification = createSpecification(criteria);
+        Slice<AppartementDTO> slice = findSlice(specification, page, AppartementDTO.class, toDto(expand));
+        return countService.withTotal(slice, countStrategy, Appartement.class, String.valueOf(criteria),
+            () -> appartementRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link AppartementDTO} which matches the criteria from the database, using cursor pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param lastId The id of the last entity of the previous page.
+     * @param size The size of the page.
+     * @param expand The relationships to include, among {@link #EXPANDABLE}.
+     * @return the matching entities as DTOs, sorted by id.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AppartementDTO> findByCriteriaAfter(AppartementCriteria criteria, Long lastId, int size, Set<String> expand) {
+        log.debug("find by criteria : {}, after: {}, expand: {}", criteria, lastId, expand);
+        return findAfter(createSpecification(criteria), Appartement_.id, lastId, size, AppartementDTO.class, toDto(expand));
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(AppartementCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Appartement> specification = createSpecification(criteria);
+        return appartementRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link AppartementCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Appartement> createSpecification(AppartementCriteria criteria) {
+        Specification<Appartement> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Appartement_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Appartement_.name));
+            }
+            if (criteria.getNumeroappart() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getNumeroappart(), Appartement_.numeroappart));
+            }
+            if (criteria.getEtageId() != null) {
+                specification = specification.and(buildSpecification(criteria.getEtageId(),
+                    root -> root.get(Appartement_.etage).get(Etage_.id)));
+            }
+            EtageCriteria etage = criteria.getEtage();
+            if (etage != null) {
+                if (etage.getId() != null) {
+                    specification = specification.and(buildSpecification(etage.getId(),
+                        root -> root.get(Appartement_.etage).get(Etage_.id)));
+                }
+                if (etage.getNumeroetage() != null) {
+                    specification = specification.and(buildSpecification(etage.getNumeroetage(),
+                        root -> joinEtage(root).get(Etage_.numeroetage)));
+                }
+                if (etage.getBatimentId() != null) {
+                    specification = specification.and(buildSpecification(etage.getBatimentId(),
+                        root -> joinEtage(root).get(Etage_.batiment).get(Batiment_.id)));
+                }
+            }
+        }
+        return specification;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Join<Appartement, Etage> joinEtage(Root<Appartement> root) {
+        return root.getJoins().stream()
+            .filter(join -> join.getAttribute().equals(Appartement_.etage))
+            .map(join -> (Join<Appartement, Etage>) join)
+            .findFirst()
+            .orElseGet(() -> root.join(Appartement_.etage, JoinType.LEFT));
+    }
+
+    /**
+     * Select the columns of an {@link AppartementDTO}, joining the etage and the batiment only if they are expanded.
+     */
+    private static Function<Root<Appartement>, Selection<?>[]> toDto(Set<String> expand) {
+        return root -> {
+            if (!expand.contains(EXPAND_ETAGE)) {
+                return new Selection<?>[]{root.get(Appartement_.id), root.get(Appartement_.name), root.get(Appartement_.numeroappart),
+                    root.get(Appartement_.etage).get(Etage_.id)};
+            }
+            Join<Appartement, Etage> etage = root.join(Appartement_.etage, JoinType.LEFT);
+            if (!expand.contains(EXPAND_ETAGE_BATIMENT)) {
+                return new Selection<?>[]{root.get(Appartement_.id), root.get(Appartement_.name), root.get(Appartement_.numeroappart),
+                    etage.get(Etage_.id), etage.get(Etage_.numeroetage), etage.get(Etage_.batiment).get(Batiment_.id)};
+            }
+            Join<Etage, Batiment> batiment = etage.join(Etage_.batiment, JoinType.LEFT);
+            return new Selection<?>[]{root.get(Appartement_.id), root.get(Appartement_.name), root.get(Appartement_.numeroappart),
+                etage.get(Etage_.id), etage.get(Etage_.numeroetage), batiment.get(Batiment_.id), batiment.get(Batiment_.name)};
+        };
+    }
+}
@@ -1,13 +1,18 @@
 package com.construction.service;
 
 import io.github.jhipster.config.JHipsterProperties;
+import com.construction.config.ApplicationProperties.CountStrategy;
 import com.construction.config.audit.AuditEventConverter;
+import com.construction.domain.PersistentAuditEvent;
 import com.construction.repository.PersistenceAuditEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,13 +38,16 @@ public class AuditEventService {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final CountService countService;
+
     public AuditEventService(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
-        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties) {
+        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties, CountService countService) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
         this.jHipsterProperties = jhipsterProperties;
+        this.countService = countService;
     }
 
     /**
@@ -57,15 +65,48 @@ public class AuditEventService {
             });
     }
 
+    /**
+     * Get a page of audit events.
+     *
+     * @param pageable      the pagination information.
+     * @param countStrategy how the audit events are counted.
+     * @return the page of events, a {@link Page} unless the count strategy is {@code NONE}.
+     */
     @Transactional(readOnly = true)
-    public Page<AuditEvent> findAll(Pageable pageable) {
-        return persistenceAuditEventRepository.findAll(pageable)
+    public Slice<AuditEvent> findAll(Pageable pageable, CountStrategy countStrategy) {
+        return countService.withTotal(persistenceAuditEventRepository.findSlice(pageable), countStrategy,
+            PersistentAuditEvent.class, "all", persistenceAuditEventRepository::count)
             .map(auditEventConverter::convertToAuditEvent);
     }
 
+    /**
+     * Get the audit events older than the given one, most recent first, without counting them.
+     * <p>
+     * The events are returned unconverted, so that their id can be used as the cursor of the next page.
+     *
+     * @param id   the id of the last event of the previous page.
+     * @param size the size of the page.
+     * @return the page of events.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PersistentAuditEvent> findAllBefore(Long id, int size) {
+        return persistenceAuditEventRepository.findAllByIdLessThan(id, PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    /**
+     * Get a page of the audit events between two dates.
+     *
+     * @param fromDate      the start of the time period.
+     * @param toDate        the end of the time period.
+     * @param pageable      the pagination information.
+     * @param countStrategy how the audit events are counted.
+     * @return the page of events, a {@link Page} unless the count strategy is {@code NONE}.
+     */
     @Transactional(readOnly = true)
-    public Page<AuditEvent> findByDates(Instant fromDate, Instant toDate, Pageable pageable) {
-        return persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable)
+    public Slice<AuditEvent> findByDates(Instant fromDate, Instant toDate, Pageable pageable, CountStrategy countStrategy) {
+        return countService.withTotal(persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable),
+            countStrategy, PersistentAuditEvent.class, fromDate + "/" + toDate,
+            () -> persistenceAuditEventRepository.countByAuditEventDateBetween(fromDate, toDate))
             .map(auditEventConverter::convertToAuditEvent);
     }
 
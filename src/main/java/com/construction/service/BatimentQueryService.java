@@ -0,0 +1,115 @@
+package com.construction.service;
+
+import com.construction.config.ApplicationProperties.CountStrategy;
+import com.construction.domain.Batiment;
+import com.construction.domain.Batiment_;
+import com.construction.repository.BatimentRepository;
+import com.construction.service.dto.BatimentCriteria;
+import com.construction.service.dto.BatimentDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+/**
+ * Service for executing complex queries for {@link Batiment} entities in the database.
+ * The main input is a {@link BatimentCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Page} or a {@link Slice} of {@link BatimentDTO} which fulfills the criteria.
+ * <p>
+ * The pages are stored in the {@value #QUERY_CACHE_REGION} query cache region, invalidated when the batiment table is written.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BatimentQueryService extends SliceQueryService<Batiment> {
+
+    public static final String QUERY_CACHE_REGION = "query.batiments";
+
+    private final Logger log = LoggerFactory.getLogger(BatimentQueryService.class);
+
+    private final BatimentRepository batimentRepository;
+
+    private final CountService countService;
+
+    public BatimentQueryService(BatimentRepository batimentRepository, CountService countService, EntityManager entityManager) {
+        super(entityManager, Batiment.class);
+        this.batimentRepository = batimentRepository;
+        this.countService = countService;
+    }
+
+    /**
+     * Return a {@link Page} or a {@link Slice} of {@link BatimentDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param countStrategy How the matching entities are counted.
+     * @return the matching entities as DTOs, in a {@link Page} unless the count strategy is {@code NONE}.
+     */
+    @Transactional(readOnly = true)
+    public Slice<BatimentDTO> findByCriteria(BatimentCriteria criteria, Pageable page, CountStrategy countStrategy) {
+        log.debug("find by criteria : {}, page: {}, count: {}", criteria, page, countStrategy);
+        final Specification<Batiment> specification = createSpecification(criteria);
+        Slice<BatimentDTO> slice = findSlice(specification, page, BatimentDTO.class, BatimentQueryService::toDto, QUERY_CACHE_REGION);
+        return countService.withTotal(slice, countStrategy, Batiment.class, String.valueOf(criteria),
+            () -> batimentRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link BatimentDTO} which matches the criteria from the database, using cursor pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param lastId The id of the last entity of the previous page.
+     * @param size The size of the page.
+     * @return the matching entities as DTOs, sorted by id.
+     */
+    @Transactional(readOnly = true)
+    public Slice<BatimentDTO> findByCriteriaAfter(BatimentCriteria criteria, Long lastId, int size) {
+        log.debug("find by criteria : {}, after: {}", criteria, lastId);
+        return findAfter(createSpecification(criteria), Batiment_.id, lastId, size, BatimentDTO.class, BatimentQueryService::toDto,
+            QUERY_CACHE_REGION);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(BatimentCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Batiment> specification = createSpecification(criteria);
+        return batimentRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link BatimentCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Batiment> createSpecification(BatimentCriteria criteria) {
+        Specification<Batiment> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Batiment_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Batiment_.name));
+            }
+        }
+        return specification;
+    }
+
+    /**
+     * Select the columns of a {@link BatimentDTO}.
+     */
+    private static Selection<?>[] toDto(Root<Batiment> root) {
+        return new Selection<?>[]{root.get(Batiment_.id), root.get(Batiment_.name)};
+    }
+}
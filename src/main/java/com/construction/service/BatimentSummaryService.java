@@ -0,0 +1,401 @@
+package com.construction.service;
+
+import com.construction.domain.Appartement;
+import com.construction.domain.Batiment;
+import com.construction.domain.Etage;
+import com.construction.repository.BatimentRepository;
+import com.construction.repository.EtageRepository;
+import com.construction.service.dto.BatimentSummaryDTO;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.AbstractEntryProcessor;
+import org.hibernate.Hibernate;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the {@link BatimentSummaryDTO} of every {@link Batiment} in a Hazelcast map.
+ * <p>
+ * The summaries are updated incrementally: inserting, deleting or moving an etage or an appartement changes the
+ * counts of its batiment when the transaction commits, without reading the database. Only moving an etage to another
+ * batiment, or changing a batiment without summary, reads the summaries of the affected batiments again. The appartements
+ * of an etage only referenced by its id, or not loaded, are counted once the batiments of those etages are read after
+ * the commit.
+ * <p>
+ * Bulk JPQL statements and changes made outside of this application are not seen: {@link #rebuild()} recomputes all the
+ * summaries from the database. It is also called at startup when the map is empty.
+ */
+@Service
+public class BatimentSummaryService {
+
+    public static final String MAP_NAME = "batimentSummaries";
+
+    private final Logger log = LoggerFactory.getLogger(BatimentSummaryService.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final BatimentRepository batimentRepository;
+
+    private final EtageRepository etageRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BatimentSummaryService(HazelcastInstance hazelcastInstance, EntityManagerFactory entityManagerFactory,
+                                  BatimentRepository batimentRepository, EtageRepository etageRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.entityManagerFactory = entityManagerFactory;
+        this.batimentRepository = batimentRepository;
+        this.etageRepository = etageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Not read-only, so that a replica which may not have the committed changes yet is not used
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        SummaryListener listener = new SummaryListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (getSummaries().isEmpty()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Get the summaries of all the batiments.
+     *
+     * @return the summaries, sorted by id.
+     */
+    public List<BatimentSummaryDTO> findAll() {
+        return getSummaries().values().stream()
+            .sorted(Comparator.comparing(BatimentSummaryDTO::getId))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Recompute the summaries of all the batiments from the database.
+     *
+     * @return the summaries, sorted by id.
+     */
+    public List<BatimentSummaryDTO> rebuild() {
+        log.debug("Rebuilding the summaries of all the batiments");
+        List<BatimentSummaryDTO> summaries = transactionTemplate.execute(status -> batimentRepository.findAllSummaries());
+        IMap<Long, BatimentSummaryDTO> map = getSummaries();
+        Map<Long, BatimentSummaryDTO> byId = summaries.stream()
+            .collect(Collectors.toMap(BatimentSummaryDTO::getId, summary -> summary));
+        map.keySet().stream().filter(id -> !byId.containsKey(id)).forEach(map::delete);
+        map.putAll(byId);
+        return findAll();
+    }
+
+    private void refresh(Set<Long> ids) {
+        log.debug("Refreshing the summaries of the batiments {}", ids);
+        List<BatimentSummaryDTO> summaries = transactionTemplate.execute(status -> batimentRepository.findSummariesByIdIn(ids));
+        IMap<Long, BatimentSummaryDTO> map = getSummaries();
+        Set<Long> missing = new HashSet<>(ids);
+        for (BatimentSummaryDTO summary : summaries) {
+            map.set(summary.getId(), summary);
+            missing.remove(summary.getId());
+        }
+        missing.forEach(map::delete);
+    }
+
+    private void apply(Changes changes) {
+        if (!changes.etageAppartements.isEmpty() || !changes.staleEtages.isEmpty()) {
+            resolveEtages(changes);
+        }
+        IMap<Long, BatimentSummaryDTO> map = getSummaries();
+        Set<Long> stale = new HashSet<>(changes.stale);
+        changes.deltas.forEach((id, delta) -> {
+            if (delta.deleted) {
+                map.delete(id);
+            } else if (delta.created != null) {
+                String name = delta.name != null ? delta.name : delta.created;
+                map.set(id, new BatimentSummaryDTO(id, name, delta.etages, delta.appartements));
+            } else if (!stale.contains(id) && !Boolean.TRUE.equals(map.executeOnKey(id, delta))) {
+                stale.add(id);
+            }
+        });
+        if (!stale.isEmpty()) {
+            refresh(stale);
+        }
+    }
+
+    /**
+     * Replace the changes recorded by etage with the changes of their batiments.
+     */
+    private void resolveEtages(Changes changes) {
+        Set<Long> etageIds = new HashSet<>(changes.etageAppartements.keySet());
+        etageIds.addAll(changes.staleEtages);
+        List<Object[]> batimentIds = transactionTemplate.execute(status -> etageRepository.findBatimentIdsByIdIn(etageIds));
+        for (Object[] ids : batimentIds) {
+            Long etageId = (Long) ids[0];
+            Long batimentId = (Long) ids[1];
+            changes.addAppartements(batimentId, changes.etageAppartements.getOrDefault(etageId, 0L));
+            if (changes.staleEtages.contains(etageId)) {
+                changes.stale(batimentId);
+            }
+        }
+        changes.etageAppartements.clear();
+        changes.staleEtages.clear();
+    }
+
+    private IMap<Long, BatimentSummaryDTO> getSummaries() {
+        return hazelcastInstance.getMap(MAP_NAME);
+    }
+
+    /**
+     * Record a change, applied when the current transaction commits.
+     */
+    private void record(Consumer<Changes> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Changes changes = new Changes();
+            change.accept(changes);
+            apply(changes);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Changes) {
+                change.accept((Changes) synchronization);
+                return;
+            }
+        }
+        Changes changes = new Changes();
+        change.accept(changes);
+        TransactionSynchronizationManager.registerSynchronization(changes);
+    }
+
+    private static Long batimentId(Batiment batiment) {
+        return batiment == null ? null : batiment.getId();
+    }
+
+    private static Long batimentId(Etage etage) {
+        return etage == null ? null : batimentId(etage.getBatiment());
+    }
+
+    /**
+     * An etage whose batiment is not known: only referenced by its id, as sent to the REST API, or not loaded.
+     */
+    private static boolean isReference(Etage etage) {
+        return etage != null && etage.getId() != null && (!Hibernate.isInitialized(etage) || etage.getBatiment() == null);
+    }
+
+    private static Long etageId(Etage etage) {
+        return etage == null ? null : etage.getId();
+    }
+
+    private static Object oldValue(PostUpdateEvent event, String property) {
+        Object[] oldState = event.getOldState();
+        return oldState == null ? null : oldState[event.getPersister().getEntityMetamodel().getPropertyIndex(property)];
+    }
+
+    private class SummaryListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            Object entity = event.getEntity();
+            if (entity instanceof Batiment) {
+                Batiment batiment = (Batiment) entity;
+                record(changes -> changes.delta(batiment.getId()).created = batiment.getName());
+            } else if (entity instanceof Etage) {
+                Long batimentId = batimentId(((Etage) entity).getBatiment());
+                record(changes -> changes.addEtages(batimentId, 1));
+            } else if (entity instanceof Appartement) {
+                Etage etage = ((Appartement) entity).getEtage();
+                record(changes -> changes.addAppartements(etage, 1));
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            Object entity = event.getEntity();
+            if (entity instanceof Batiment) {
+                Batiment batiment = (Batiment) entity;
+                record(changes -> changes.delta(batiment.getId()).name = batiment.getName());
+            } else if (entity instanceof Etage) {
+                Long oldBatimentId = batimentId((Batiment) oldValue(event, "batiment"));
+                Long newBatimentId = batimentId(((Etage) entity).getBatiment());
+                if (event.getOldState() == null || !Objects.equals(oldBatimentId, newBatimentId)) {
+                    // The appartements of the etage move too, and they are not loaded
+                    record(changes -> {
+                        changes.stale(oldBatimentId);
+                        changes.stale(newBatimentId);
+                    });
+                }
+            } else if (entity instanceof Appartement) {
+                Etage oldEtage = (Etage) oldValue(event, "etage");
+                Etage newEtage = ((Appartement) entity).getEtage();
+                if (event.getOldState() == null) {
+                    record(changes -> changes.stale(newEtage));
+                } else if (!Objects.equals(etageId(oldEtage), etageId(newEtage))
+                    && (isReference(oldEtage) || isReference(newEtage) || !Objects.equals(batimentId(oldEtage), batimentId(newEtage)))) {
+                    record(changes -> {
+                        changes.addAppartements(oldEtage, -1);
+                        changes.addAppartements(newEtage, 1);
+                    });
+                }
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            Object entity = event.getEntity();
+            if (entity instanceof Batiment) {
+                Long batimentId = ((Batiment) entity).getId();
+                record(changes -> changes.delta(batimentId).deleted = true);
+            } else if (entity instanceof Etage) {
+                Long batimentId = batimentId(((Etage) entity).getBatiment());
+                record(changes -> changes.addEtages(batimentId, -1));
+            } else if (entity instanceof Appartement) {
+                Etage etage = ((Appartement) entity).getEtage();
+                record(changes -> changes.addAppartements(etage, -1));
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        /**
+         * Still abstract in Hibernate 5.4, replaced by {@link #requiresPostCommitHandling(EntityPersister)}.
+         */
+        @Override
+        @Deprecated
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return requiresPostCommitHandling(persister);
+        }
+    }
+
+    /**
+     * The changes made to the summaries by a transaction.
+     */
+    private class Changes extends TransactionSynchronizationAdapter {
+
+        private final Map<Long, Delta> deltas = new HashMap<>();
+
+        private final Set<Long> stale = new HashSet<>();
+
+        private final Map<Long, Long> etageAppartements = new HashMap<>();
+
+        private final Set<Long> staleEtages = new HashSet<>();
+
+        Delta delta(Long batimentId) {
+            return deltas.computeIfAbsent(batimentId, id -> new Delta());
+        }
+
+        void addEtages(Long batimentId, long count) {
+            if (batimentId != null) {
+                delta(batimentId).etages += count;
+            }
+        }
+
+        void addAppartements(Long batimentId, long count) {
+            if (batimentId != null) {
+                delta(batimentId).appartements += count;
+            }
+        }
+
+        void addAppartements(Etage etage, long count) {
+            if (isReference(etage)) {
+                etageAppartements.merge(etage.getId(), count, Long::sum);
+            } else {
+                addAppartements(batimentId(etage), count);
+            }
+        }
+
+        void stale(Long batimentId) {
+            if (batimentId != null) {
+                stale.add(batimentId);
+            }
+        }
+
+        void stale(Etage etage) {
+            if (isReference(etage)) {
+                staleEtages.add(etage.getId());
+            } else {
+                stale(batimentId(etage));
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            try {
+                apply(this);
+            } catch (RuntimeException e) {
+                log.warn("Could not update the batiment summaries, they must be rebuilt: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The change of the summary of a batiment, applied on the member owning it.
+     */
+    private static class Delta extends AbstractEntryProcessor<Long, BatimentSummaryDTO> {
+
+        private static final long serialVersionUID = 1L;
+
+        private long etages;
+
+        private long appartements;
+
+        private String name;
+
+        private transient String created;
+
+        private transient boolean deleted;
+
+        @Override
+        public Object process(Map.Entry<Long, BatimentSummaryDTO> entry) {
+            BatimentSummaryDTO summary = entry.getValue();
+            if (summary == null) {
+                return false;
+            }
+            summary.setEtageCount(summary.getEtageCount() + etages);
+            summary.setAppartementCount(summary.getAppartementCount() + appartements);
+            if (name != null) {
+                summary.setName(name);
+            }
+            entry.setValue(summary);
+            return true;
+        }
+    }
+}
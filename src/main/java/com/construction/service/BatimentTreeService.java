@@ -0,0 +1,111 @@
+package com.construction.service;
+
+import com.construction.domain.Appartement;
+import com.construction.domain.Batiment;
+import com.construction.domain.Etage;
+import com.construction.repository.EtageRepository;
+import com.construction.service.dto.BatimentTreeDTO;
+
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Service loading a whole {@link Batiment} hierarchy (Batiment → Etage → Appartement).
+ * <p>
+ * The hierarchy is read from the Hibernate second-level cache when the building, its etages collection, all the
+ * appartements collections and all the etages and appartements they hold are cached. Otherwise it is loaded with a constant number of SQL statements:
+ * one for the building and one fetch join for the etages and their appartements.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BatimentTreeService {
+
+    private static final String ETAGES_ROLE = Batiment.class.getName() + ".etages";
+
+    private static final String APPARTEMENTS_ROLE = Etage.class.getName() + ".appartements";
+
+    private final Logger log = LoggerFactory.getLogger(BatimentTreeService.class);
+
+    private final EntityManager entityManager;
+
+    private final EtageRepository etageRepository;
+
+    public BatimentTreeService(EntityManager entityManager, EtageRepository etageRepository) {
+        this.entityManager = entityManager;
+        this.etageRepository = etageRepository;
+    }
+
+    /**
+     * Get the "id" batiment with all its etages and appartements.
+     *
+     * @param id the id of the batiment.
+     * @return the batiment hierarchy, or an empty {@link Optional} if the batiment does not exist.
+     */
+    public Optional<BatimentTreeDTO> findTree(Long id) {
+        Batiment batiment = entityManager.find(Batiment.class, id);
+        if (batiment == null) {
+            return Optional.empty();
+        }
+        Collection<Etage> etages = findCachedEtages(batiment)
+            .orElseGet(() -> etageRepository.findAllWithAppartementsByBatimentId(id));
+        return Optional.of(new BatimentTreeDTO(batiment, etages));
+    }
+
+    private Optional<Collection<Etage>> findCachedEtages(Batiment batiment) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        Optional<Serializable[]> etageIds = findCachedElementIds(ETAGES_ROLE, batiment.getId());
+        if (!etageIds.isPresent()) {
+            return Optional.empty();
+        }
+        for (Serializable etageId : etageIds.get()) {
+            Optional<Serializable[]> appartementIds = cache.containsEntity(Etage.class, etageId)
+                ? findCachedElementIds(APPARTEMENTS_ROLE, etageId)
+                : Optional.empty();
+            if (!appartementIds.isPresent()
+                || !Arrays.stream(appartementIds.get()).allMatch(appartementId -> cache.containsEntity(Appartement.class, appartementId))) {
+                log.debug("Etage {} or its appartements are not cached, loading the Batiment tree from the database", etageId);
+                return Optional.empty();
+            }
+        }
+        Collection<Etage> etages = batiment.getEtages();
+        Hibernate.initialize(etages);
+        etages.forEach(etage -> Hibernate.initialize(etage.getAppartements()));
+        return Optional.of(etages);
+    }
+
+    /**
+     * The ids held by a cached collection, read from its cache entry without loading the elements: initializing the
+     * collection would load the elements missing from their region one by one.
+     */
+    private Optional<Serializable[]> findCachedElementIds(String role, Serializable owner) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor sessionFactory = session.getFactory();
+        CollectionPersister persister = sessionFactory.getMetamodel().collectionPersister(role);
+        if (!persister.hasCache()) {
+            return Optional.empty();
+        }
+        CollectionDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        Object cached = cacheAccess.get(session,
+            cacheAccess.generateCacheKey(owner, persister, sessionFactory, session.getTenantIdentifier()));
+        if (cached == null) {
+            return Optional.empty();
+        }
+        CollectionCacheEntry entry = (CollectionCacheEntry) persister.getCacheEntryStructure().destructure(cached, sessionFactory);
+        return Optional.of(entry.getState());
+    }
+}
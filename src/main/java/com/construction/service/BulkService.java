@@ -0,0 +1,120 @@
+package com.construction.service;
+
+import com.construction.config.ApplicationProperties;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for creating and updating many entities in a single transaction.
+ * <p>
+ * Entities are written in chunks of {@code application.bulk.chunk-size}: each chunk is flushed, so that
+ * Hibernate sends it with JDBC batching ({@code hibernate.jdbc.batch_size}), and then cleared, so that the
+ * persistence context does not grow with the size of the request.
+ */
+@Service
+@Transactional
+public class BulkService {
+
+    private final Logger log = LoggerFactory.getLogger(BulkService.class);
+
+    private final EntityManager entityManager;
+
+    private final ApplicationProperties applicationProperties;
+
+    public BulkService(EntityManager entityManager, ApplicationProperties applicationProperties) {
+        this.entityManager = entityManager;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Persist new entities.
+     *
+     * @param entities the entities to create, none of them having an id.
+     * @param idGetter the function giving the id of an entity.
+     * @param <T>      the type of the entities.
+     * @return the generated ids, in the order of {@code entities}.
+     */
+    public <T> List<Long> createAll(List<T> entities, Function<T, Long> idGetter) {
+        log.debug("Request to create {} entities", entities.size());
+        List<Long> ids = new ArrayList<>(entities.size());
+        for (List<T> chunk : chunks(entities)) {
+            chunk.forEach(entityManager::persist);
+            chunk.stream().map(idGetter).forEach(ids::add);
+            flushAndClear();
+        }
+        return ids;
+    }
+
+    /**
+     * Update existing entities.
+     * <p>
+     * The current state of each chunk is loaded with a single {@code IN} query before merging,
+     * instead of one select per merged entity. Entities are given their current version:
+     * the last write wins.
+     *
+     * @param entities   the entities to update, all of them having an id.
+     * @param idGetter   the function giving the id of an entity.
+     * @param repository the repository of the entities.
+     * @param <T>        the type of the entities.
+     * @return the ids of the updated entities, in the order of {@code entities}.
+     * @throws EntityNotFoundException if one of the entities does not exist.
+     */
+    public <T> List<Long> updateAll(List<T> entities, Function<T, Long> idGetter, JpaRepository<T, Long> repository) {
+        log.debug("Request to update {} entities", entities.size());
+        List<Long> ids = new ArrayList<>(entities.size());
+        for (List<T> chunk : chunks(entities)) {
+            List<Long> chunkIds = chunk.stream().map(idGetter).collect(Collectors.toList());
+            Map<Long, T> existing = repository.findAllById(chunkIds).stream().collect(Collectors.toMap(idGetter, Function.identity()));
+            for (T entity : chunk) {
+                T current = existing.get(idGetter.apply(entity));
+                if (current == null) {
+                    throw new EntityNotFoundException("Entity not found: " + idGetter.apply(entity));
+                }
+                keepCurrentVersion(entity, current);
+            }
+            chunk.forEach(entityManager::merge);
+            ids.addAll(chunkIds);
+            flushAndClear();
+        }
+        return ids;
+    }
+
+    /**
+     * Give the current version to an entity, whose version is not sent by the client, so that merging it does not
+     * fail the optimistic locking check.
+     */
+    private <T> void keepCurrentVersion(T entity, T current) {
+        EntityPersister persister = entityManager.unwrap(SessionImplementor.class).getEntityPersister(null, current);
+        if (persister.isVersioned()) {
+            persister.setPropertyValue(entity, persister.getVersionProperty(), persister.getVersion(current));
+        }
+    }
+
+    private <T> List<List<T>> chunks(List<T> entities) {
+        int chunkSize = Math.max(1, applicationProperties.getBulk().getChunkSize());
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i += chunkSize) {
+            chunks.add(entities.subList(i, Math.min(i + chunkSize, entities.size())));
+        }
+        return chunks;
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,182 @@
+package com.construction.service;
+
+import com.construction.config.ApplicationProperties;
+import com.construction.domain.Appartement;
+import com.construction.domain.Batiment;
+import com.construction.domain.Etage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service loading the second-level cache when the application starts, so that a new instance does not read every
+ * batiment and etage from the database when it receives its first requests.
+ * <p>
+ * The batiments and the etages are loaded, and optionally the most recently created appartements, by chunks of
+ * {@code application.cache.warm-up.chunk-size} entities sorted by id. Only the entities missing from the cache are
+ * read: the cache is shared by the cluster, so the members started before have already loaded most of them, and
+ * putting them again would invalidate them in the near cache of every member. The instance stays {@code STARTING} in the
+ * service registry until the warm-up is complete, or until {@code application.cache.warm-up.timeout-seconds} have
+ * elapsed: the loading then goes on while the instance takes traffic.
+ * <p>
+ * The duration of the warm-up is published as the {@code cache.warmup.duration} timer, and the number of entities
+ * loaded from the database in each region as the {@code cache.warmup.entries} gauges.
+ */
+@Service
+public class CacheWarmUpService {
+
+    private final Logger log = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private final EntityManager entityManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Executor taskExecutor;
+
+    private final TaskScheduler taskScheduler;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The number of entities loaded by region, held here as the gauges only keep a weak reference to them.
+     */
+    private final Map<String, AtomicLong> entries = new ConcurrentHashMap<>();
+
+    private volatile boolean complete;
+
+    public CacheWarmUpService(EntityManager entityManager, EntityManagerFactory entityManagerFactory,
+                              ApplicationProperties applicationProperties, MeterRegistry meterRegistry,
+                              @Qualifier("taskExecutor") Executor taskExecutor, TaskScheduler taskScheduler,
+                              PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+        this.taskExecutor = taskExecutor;
+        this.taskScheduler = taskScheduler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Whether the instance can take traffic: the warm-up is complete, has timed out, or is disabled.
+     *
+     * @return {@code true} once the warm-up is over.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ApplicationProperties.WarmUp warmUp = applicationProperties.getCache().getWarmUp();
+        if (!warmUp.isEnabled() || !entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+            complete = true;
+            return;
+        }
+        log.info("Warming up the second-level cache");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture.runAsync(() -> {
+            load(Batiment.class, warmUp.getMaxEntries(), true);
+            load(Etage.class, warmUp.getMaxEntries(), true);
+            load(Appartement.class, warmUp.getAppartements(), false);
+        }, taskExecutor).whenComplete((result, e) -> {
+            long duration = sample.stop(meterRegistry.timer("cache.warmup.duration"));
+            if (e != null) {
+                log.warn("Could not warm up the second-level cache: {}", e.getMessage());
+            } else {
+                log.info("Warmed up the second-level cache in {} ms", TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+            complete = true;
+        });
+        taskScheduler.schedule(() -> {
+            if (!complete) {
+                log.warn("The warm-up of the second-level cache takes more than {} seconds, the instance is marked as up",
+                    warmUp.getTimeoutSeconds());
+                complete = true;
+            }
+        }, Instant.now().plusSeconds(warmUp.getTimeoutSeconds()));
+    }
+
+    /**
+     * Load the entities of a class missing from the second-level cache, by chunks.
+     *
+     * @param entityClass the class of the entities.
+     * @param maxEntries  the maximum number of entities to load, counting those already in the cache.
+     * @param ascending   whether the entities with the lowest ids are loaded first, otherwise the most recent ones.
+     */
+    private void load(Class<?> entityClass, int maxEntries, boolean ascending) {
+        String region = entityClass.getName();
+        AtomicLong loaded = entries.computeIfAbsent(region, key ->
+            meterRegistry.gauge("cache.warmup.entries", Collections.singletonList(Tag.of("region", key)), new AtomicLong()));
+        loaded.set(0);
+        String idQuery = "select e.id from " + entityClass.getSimpleName() + " e " +
+            (ascending ? "where e.id > :lastId order by e.id asc" : "where e.id < :lastId order by e.id desc");
+        String entityQuery = "select e from " + entityClass.getSimpleName() + " e where e.id in :ids";
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        int chunkSize = applicationProperties.getCache().getWarmUp().getChunkSize();
+        long lastId = ascending ? Long.MIN_VALUE : Long.MAX_VALUE;
+        long read = 0;
+        while (read < maxEntries) {
+            int size = (int) Math.min(chunkSize, maxEntries - read);
+            long after = lastId;
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = entityManager.createQuery(idQuery, Long.class)
+                    .setParameter("lastId", after)
+                    .setMaxResults(size)
+                    .getResultList();
+                List<Long> missing = chunk.stream()
+                    .filter(id -> !cache.containsEntity(entityClass, id))
+                    .collect(Collectors.toList());
+                if (!missing.isEmpty()) {
+                    entityManager.createQuery(entityQuery, entityClass)
+                        .setParameter("ids", missing)
+                        // NORMAL only puts the entities read, which are not cached
+                        .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.NORMAL)
+                        .getResultList();
+                    loaded.addAndGet(missing.size());
+                    entityManager.clear();
+                }
+                return chunk;
+            });
+            if (ids.isEmpty()) {
+                break;
+            }
+            read += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        log.debug("Loaded {} {} in the second-level cache", loaded.get(), entityClass.getSimpleName());
+    }
+}
@@ -0,0 +1,171 @@
+package com.construction.service;
+
+import com.construction.config.ApplicationProperties;
+import com.construction.config.ApplicationProperties.CountStrategy;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Service computing the total number of elements of paginated lists, according to their {@link CountStrategy}.
+ * <p>
+ * Cached counts are stored in one Hazelcast map per entity, named {@code count.<entity class>}, with a time to live of
+ * {@code application.count.time-to-live-seconds}. The map of an entity is cleared when a transaction inserting or
+ * deleting such an entity commits. Bulk JPQL statements are not seen, and updates changing a filtered field only
+ * become visible when the cached count expires.
+ */
+@Service
+public class CountService {
+
+    public static final String MAP_PREFIX = "count.";
+
+    private final Logger log = LoggerFactory.getLogger(CountService.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationProperties applicationProperties;
+
+    public CountService(HazelcastInstance hazelcastInstance, EntityManagerFactory entityManagerFactory,
+                        ApplicationProperties applicationProperties) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.entityManagerFactory = entityManagerFactory;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        EvictionListener listener = new EvictionListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    /**
+     * Add the total number of elements to a slice, according to a count strategy.
+     *
+     * @param slice         the slice, read without counting.
+     * @param countStrategy the count strategy.
+     * @param entityType    the type of the counted entities.
+     * @param key           the key of the count in the cache, which must identify the filters of the query.
+     * @param counter       the function counting the entities in the database.
+     * @param <T>           the type of the elements of the slice.
+     * @return a {@link org.springframework.data.domain.Page} for the {@code EXACT} and {@code CACHED} strategies,
+     * the slice itself for the {@code NONE} strategy.
+     */
+    public <T> Slice<T> withTotal(Slice<T> slice, CountStrategy countStrategy, Class<?> entityType, String key, LongSupplier counter) {
+        Pageable pageable = slice.getPageable();
+        switch (countStrategy) {
+            case NONE:
+                return slice;
+            case CACHED:
+                return PageableExecutionUtils.getPage(slice.getContent(), pageable, () -> count(entityType, key, counter));
+            default:
+                return PageableExecutionUtils.getPage(slice.getContent(), pageable, counter);
+        }
+    }
+
+    private long count(Class<?> entityType, String key, LongSupplier counter) {
+        IMap<String, Long> counts = hazelcastInstance.getMap(MAP_PREFIX + entityType.getName());
+        Long count = counts.get(key);
+        if (count == null) {
+            count = counter.getAsLong();
+            counts.set(key, count, applicationProperties.getCount().getTimeToLiveSeconds(), TimeUnit.SECONDS);
+        }
+        return count;
+    }
+
+    /**
+     * Evict the cached counts of an entity.
+     *
+     * @param entityType the type of the entity.
+     */
+    public void evict(Class<?> entityType) {
+        log.debug("Evicting the cached counts of {}", entityType.getSimpleName());
+        hazelcastInstance.getMap(MAP_PREFIX + entityType.getName()).clear();
+    }
+
+    /**
+     * Evict the cached counts of an entity when the current transaction commits, once per transaction and entity.
+     */
+    private void evictAfterCommit(Class<?> entityType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(entityType);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof EvictionSynchronization) {
+                ((EvictionSynchronization) synchronization).entityTypes.add(entityType);
+                return;
+            }
+        }
+        EvictionSynchronization synchronization = new EvictionSynchronization();
+        synchronization.entityTypes.add(entityType);
+        TransactionSynchronizationManager.registerSynchronization(synchronization);
+    }
+
+    private class EvictionListener implements PostInsertEventListener, PostDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            evictAfterCommit(event.getPersister().getMappedClass());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            evictAfterCommit(event.getPersister().getMappedClass());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        /**
+         * Still abstract in Hibernate 5.4, replaced by {@link #requiresPostCommitHandling(EntityPersister)}.
+         */
+        @Override
+        @Deprecated
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return requiresPostCommitHandling(persister);
+        }
+    }
+
+    private class EvictionSynchronization extends TransactionSynchronizationAdapter {
+
+        private final Set<Class<?>> entityTypes = new HashSet<>();
+
+        @Override
+        public void afterCommit() {
+            entityTypes.forEach(CountService.this::evict);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.construction.service;
+
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Optional;
+
+/**
+ * Service reading the {@link javax.persistence.Version} of an entity without loading the entity.
+ * <p>
+ * The version is read from the second-level cache entry of the entity when there is one, otherwise with a query
+ * selecting only the version column.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EntityVersionService {
+
+    private final Logger log = LoggerFactory.getLogger(EntityVersionService.class);
+
+    private final EntityManager entityManager;
+
+    public EntityVersionService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Get the current version of an entity.
+     *
+     * @param entityClass the class of the entity.
+     * @param id          the id of the entity.
+     * @return the version, or an empty {@link Optional} if the entity does not exist.
+     */
+    public Optional<Long> findVersion(Class<?> entityClass, Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMetamodel().entityPersister(entityClass);
+        if (persister.canReadFromCache()) {
+            EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+            Object cacheKey = cacheAccess.generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+            Object cachedEntry = cacheAccess.get(session, cacheKey);
+            if (cachedEntry != null) {
+                CacheEntry entry = (CacheEntry) persister.getCacheEntryStructure().destructure(cachedEntry, factory);
+                log.debug("Version of {} {} read from the cache", entityClass.getSimpleName(), id);
+                return Optional.ofNullable((Long) entry.getVersion());
+            }
+        }
+        String versionName = persister.getPropertyNames()[persister.getVersionProperty()];
+        return entityManager.createQuery("select entity." + versionName + " from " + persister.getEntityName() +
+            " entity where entity." + persister.getIdentifierPropertyName() + " = :id", Long.class)
+            .setParameter("id", id)
+            .getResultList().stream()
+            .findFirst();
+    }
+}
@@ -0,0 +1,184 @@
+package com.construction.service;
+
+import com.construction.config.ApplicationProperties.CountStrategy;
+import com.construction.domain.Batiment;
+import com.construction.domain.Batiment_;
+import com.construction.domain.Etage;
+import com.construction.domain.Etage_;
+import com.construction.repository.EtageRepository;
+import com.construction.service.dto.EtageCriteria;
+import com.construction.service.dto.EtageDTO;
+import com.construction.service.mapper.BatimentMapper;
+import com.construction.service.mapper.EtageMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Service for executing complex queries for {@link Etage} entities in the database.
+ * The main input is a {@link EtageCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Page} or a {@link Slice} of {@link EtageDTO} which fulfills the criteria.
+ * <p>
+ * {@code batimentId} is compared to the {@code batiment_id} foreign key, without joining the batiment table,
+ * so that it is served by the {@code (batiment_id, numeroetage)} index.
+ * <p>
+ * The batiment is only joined when it is expanded: otherwise only the {@code batiment_id} is read.
+ * <p>
+ * The etages of a batiment are stored in the {@value #QUERY_CACHE_REGION} query cache region, invalidated when the etage
+ * table is written, or the batiment table when it is expanded.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EtageQueryService extends SliceQueryService<Etage> {
+
+    public static final String EXPAND_BATIMENT = "batiment";
+
+    public static final Set<String> EXPANDABLE = Collections.singleton(EXPAND_BATIMENT);
+
+    public static final String QUERY_CACHE_REGION = "query.etagesByBatiment";
+
+    private final Logger log = LoggerFactory.getLogger(EtageQueryService.class);
+
+    private final EtageRepository etageRepository;
+
+    private final CountService countService;
+
+    private final EtageMapper etageMapper;
+
+    private final BatimentMapper batimentMapper;
+
+    public EtageQueryService(EtageRepository etageRepository, CountService countService, EntityManager entityManager,
+                             EtageMapper etageMapper, BatimentMapper batimentMapper) {
+        super(entityManager, Etage.class);
+        this.etageRepository = etageRepository;
+        this.countService = countService;
+        this.etageMapper = etageMapper;
+        this.batimentMapper = batimentMapper;
+    }
+
+    /**
+     * Return the {@link EtageDTO} with an id, fetching only its expanded relationships.
+     * @param id The id of the entity.
+     * @param expand The relationships to include, among {@link #EXPANDABLE}.
+     * @return the entity as a DTO, or an empty {@link Optional} if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EtageDTO> findOne(Long id, Set<String> expand) {
+        log.debug("find one : {}, expand: {}", id, expand);
+        EntityGraph<Etage> graph = createEntityGraph();
+        if (expand.contains(EXPAND_BATIMENT)) {
+            graph.addAttributeNodes(Etage_.BATIMENT);
+        }
+        return findOne(id, graph).map(etage -> {
+            EtageDTO etageDTO = etageMapper.toDto(etage);
+            if (expand.contains(EXPAND_BATIMENT) && etage.getBatiment() != null) {
+                etageDTO.setBatiment(batimentMapper.toDto(etage.getBatiment()));
+            }
+            return etageDTO;
+        });
+    }
+
+    /**
+     * Return a {@link Page} or a {@link Slice} of {@link EtageDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param countStrategy How the matching entities are counted.
+     * @param expand The relationships to include, among {@link #EXPANDABLE}.
+     * @return the matching entities as DTOs, in a {@link Page} unless the count strategy is {@code NONE}.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EtageDTO> findByCriteria(EtageCriteria criteria, Pageable page, CountStrategy countStrategy, Set<String> expand) {
+        log.debug("find by criteria : {}, page: {}, count: {}, expand: {}", criteria, page, countStrategy, expand);
+        final Specification<Etage> specification = createSpecification(criteria);
+        Slice<EtageDTO> slice = findSlice(specification, page, EtageDTO.class, toDto(expand), cacheRegion(criteria));
+        return countService.withTotal(slice, countStrategy, Etage.class, String.valueOf(criteria),
+            () -> etageRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link EtageDTO} which matches the criteria from the database, using cursor pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param lastId The id of the last entity of the previous page.
+     * @param size The size of the page.
+     * @param expand The relationships to include, among {@link #EXPANDABLE}.
+     * @return the matching entities as DTOs, sorted by id.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EtageDTO> findByCriteriaAfter(EtageCriteria criteria, Long lastId, int size, Set<String> expand) {
+        log.debug("find by criteria : {}, after: {}, expand: {}", criteria, lastId, expand);
+        return findAfter(createSpecification(criteria), Etage_.id, lastId, size, EtageDTO.class, toDto(expand),
+            cacheRegion(criteria));
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(EtageCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Etage> specification = createSpecification(criteria);
+        return etageRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link EtageCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Etage> createSpecification(EtageCriteria criteria) {
+        Specification<Etage> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Etage_.id));
+            }
+            if (criteria.getNumeroetage() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getNumeroetage(), Etage_.numeroetage));
+            }
+            if (criteria.getBatimentId() != null) {
+                specification = specification.and(buildSpecification(criteria.getBatimentId(),
+                    root -> root.get(Etage_.batiment).get(Batiment_.id)));
+            }
+        }
+        return specification;
+    }
+
+    /**
+     * Only the lists of the etages of a batiment are cached, the other filters are too diverse.
+     */
+    private static String cacheRegion(EtageCriteria criteria) {
+        return criteria != null && criteria.getBatimentId() != null ? QUERY_CACHE_REGION : null;
+    }
+
+    /**
+     * Select the columns of an {@link EtageDTO}, joining the batiment only if it is expanded.
+     */
+    private static Function<Root<Etage>, Selection<?>[]> toDto(Set<String> expand) {
+        return root -> {
+            if (!expand.contains(EXPAND_BATIMENT)) {
+                return new Selection<?>[]{root.get(Etage_.id), root.get(Etage_.numeroetage), root.get(Etage_.batiment).get(Batiment_.id)};
+            }
+            Join<Etage, Batiment> batiment = root.join(Etage_.batiment, JoinType.LEFT);
+            return new Selection<?>[]{root.get(Etage_.id), root.get(Etage_.numeroetage), batiment.get(Batiment_.id), batiment.get(Batiment_.name)};
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.construction.service;
+
+import com.construction.config.ApplicationProperties;
+import com.construction.domain.Appartement;
+import com.construction.domain.Batiment;
+import com.construction.domain.Etage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service exporting whole tables as newline-delimited JSON (one entity per line).
+ * <p>
+ * Rows are read from a forward-only cursor with a fetch size of {@code application.export.fetch-size}, and the
+ * persistence context is cleared every {@code application.export.clear-interval} rows, so that the memory used
+ * does not depend on the size of the table.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+
+    private final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ExportService(EntityManager entityManager, ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Write all the appartements, with their etage and batiment.
+     *
+     * @param out the stream to write to.
+     * @return the number of exported appartements.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long exportAppartements(OutputStream out) throws IOException {
+        return export("select appartement from Appartement appartement " +
+            "left join fetch appartement.etage etage left join fetch etage.batiment order by appartement.id", Appartement.class, out);
+    }
+
+    /**
+     * Write all the etages, with their batiment.
+     *
+     * @param out the stream to write to.
+     * @return the number of exported etages.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long exportEtages(OutputStream out) throws IOException {
+        return export("select etage from Etage etage left join fetch etage.batiment order by etage.id", Etage.class, out);
+    }
+
+    /**
+     * Write all the batiments.
+     *
+     * @param out the stream to write to.
+     * @return the number of exported batiments.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long exportBatiments(OutputStream out) throws IOException {
+        return export("select batiment from Batiment batiment order by batiment.id", Batiment.class, out);
+    }
+
+    private <T> long export(String query, Class<T> type, OutputStream out) throws IOException {
+        log.debug("Request to export all {}", type.getSimpleName());
+        ApplicationProperties.Export properties = applicationProperties.getExport();
+        int clearInterval = Math.max(1, properties.getClearInterval());
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.INDENT_OUTPUT);
+        Session session = entityManager.unwrap(Session.class);
+        long count = 0;
+        try (ScrollableResults results = session.createQuery(query, type)
+            .setFetchSize(properties.getFetchSize())
+            .setReadOnly(true)
+            .setCacheMode(CacheMode.IGNORE)
+            .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                out.write(writer.writeValueAsBytes(results.get(0)));
+                out.write(LINE_SEPARATOR);
+                if (++count % clearInterval == 0) {
+                    out.flush();
+                    session.clear();
+                }
+            }
+        }
+        out.flush();
+        log.debug("Exported {} {}", count, type.getSimpleName());
+        return count;
+    }
+}
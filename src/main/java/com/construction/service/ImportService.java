@@ -0,0 +1,360 @@
+package com.construction.service;
+
+import com.construction.config.ApplicationProperties;
+import com.construction.domain.Appartement;
+import com.construction.domain.Batiment;
+import com.construction.domain.Etage;
+import com.construction.repository.BatimentRepository;
+import com.construction.repository.EtageRepository;
+import com.construction.service.dto.ImportReportDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Service importing entities from semicolon-separated CSV files, with a header row, like the Liquibase fake data.
+ * <p>
+ * The file is read line by line, in chunks of {@code application.bulk.chunk-size} rows:
+ * <ul>
+ *     <li>the rows of a chunk are parsed and validated in parallel;</li>
+ *     <li>references to etages and batiments are checked against the set of their ids, loaded once per import;</li>
+ *     <li>the valid rows are inserted in their own transaction, with JDBC batching.</li>
+ * </ul>
+ * A chunk failing in the database is rolled back and reported, the following chunks are still imported.
+ * An {@code id} column is ignored: imported entities always get new ids.
+ */
+@Service
+public class ImportService {
+
+    private static final char SEPARATOR = ';';
+
+    private static final char QUOTE = '"';
+
+    private static final String ID_COLUMN = "id";
+
+    private final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EtageRepository etageRepository;
+
+    private final BatimentRepository batimentRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ImportService(EntityManager entityManager, Validator validator, PlatformTransactionManager transactionManager,
+                         EtageRepository etageRepository, BatimentRepository batimentRepository,
+                         ApplicationProperties applicationProperties) {
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.etageRepository = etageRepository;
+        this.batimentRepository = batimentRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Import appartements from the columns {@code name}, {@code numeroappart} and {@code etage_id}.
+     *
+     * @param csv the CSV file.
+     * @return the import report.
+     * @throws IOException if the file cannot be read.
+     * @throws InvalidCsvException if the header of the file is not valid.
+     */
+    public ImportReportDTO importAppartements(InputStream csv) throws IOException {
+        Set<Long> etageIds = new HashSet<>(etageRepository.findAllIds());
+        return importCsv(csv, Appartement.class, Arrays.asList("name", "numeroappart", "etage_id"), row -> {
+            Appartement appartement = new Appartement()
+                .name(row.get("name"))
+                .numeroappart(row.getInteger("numeroappart"));
+            Long etageId = row.getReference("etage_id", etageIds);
+            if (etageId != null) {
+                appartement.setEtage(new Etage());
+                appartement.getEtage().setId(etageId);
+            }
+            return appartement;
+        }, appartement -> appartement.getEtage() == null ? appartement :
+            appartement.etage(entityManager.getReference(Etage.class, appartement.getEtage().getId())));
+    }
+
+    /**
+     * Import etages from the columns {@code numeroetage} and {@code batiment_id}.
+     *
+     * @param csv the CSV file.
+     * @return the import report.
+     * @throws IOException if the file cannot be read.
+     * @throws InvalidCsvException if the header of the file is not valid.
+     */
+    public ImportReportDTO importEtages(InputStream csv) throws IOException {
+        Set<Long> batimentIds = new HashSet<>(batimentRepository.findAllIds());
+        return importCsv(csv, Etage.class, Arrays.asList("numeroetage", "batiment_id"), row -> {
+            Etage etage = new Etage()
+                .numeroetage(row.getInteger("numeroetage"));
+            Long batimentId = row.getReference("batiment_id", batimentIds);
+            if (batimentId != null) {
+                etage.setBatiment(new Batiment());
+                etage.getBatiment().setId(batimentId);
+            }
+            return etage;
+        }, etage -> etage.getBatiment() == null ? etage :
+            etage.batiment(entityManager.getReference(Batiment.class, etage.getBatiment().getId())));
+    }
+
+    /**
+     * Import batiments from the column {@code name}.
+     *
+     * @param csv the CSV file.
+     * @return the import report.
+     * @throws IOException if the file cannot be read.
+     * @throws InvalidCsvException if the header of the file is not valid.
+     */
+    public ImportReportDTO importBatiments(InputStream csv) throws IOException {
+        return importCsv(csv, Batiment.class, Arrays.asList("name"), row -> new Batiment()
+            .name(row.get("name")), UnaryOperator.identity());
+    }
+
+    /**
+     * Import a CSV file.
+     *
+     * @param csv              the CSV file.
+     * @param type             the type of the imported entities.
+     * @param columns          the columns which can be imported.
+     * @param parser           the parser of a row, throwing an {@link IllegalArgumentException} for an invalid row.
+     * @param referenceBinder  the function replacing the references of a parsed entity by managed proxies.
+     * @param <T>              the type of the imported entities.
+     * @return the import report.
+     */
+    private <T> ImportReportDTO importCsv(InputStream csv, Class<T> type, List<String> columns, Function<CsvRow, T> parser,
+                                          UnaryOperator<T> referenceBinder) throws IOException {
+        log.debug("Request to import {} from CSV", type.getSimpleName());
+        long start = System.nanoTime();
+        int chunkSize = Math.max(1, applicationProperties.getBulk().getChunkSize());
+        ImportReportDTO report = new ImportReportDTO();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        Map<String, Integer> header = readHeader(reader.readLine(), columns);
+        long lineNumber = 1;
+        List<CsvRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            chunk.add(new CsvRow(lineNumber, header, line));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, parser, referenceBinder, report);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, parser, referenceBinder, report);
+        }
+        report.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        report.setRowsPerSecond(report.getRowsImported() * 1000 / Math.max(1, report.getDurationMillis()));
+        log.info("Imported {} {} out of {} rows in {} ms", report.getRowsImported(), type.getSimpleName(),
+            report.getRowsRead(), report.getDurationMillis());
+        return report;
+    }
+
+    private Map<String, Integer> readHeader(String line, List<String> columns) {
+        if (line == null) {
+            throw new InvalidCsvException("The CSV file is empty");
+        }
+        List<String> names = CsvRow.split(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase();
+            if (ID_COLUMN.equals(name)) {
+                continue;
+            }
+            if (!columns.contains(name)) {
+                throw new InvalidCsvException("Unknown column: " + name + ", expected columns are " + columns);
+            }
+            header.put(name, i);
+        }
+        return header;
+    }
+
+    private <T> void importChunk(List<CsvRow> chunk, Function<CsvRow, T> parser, UnaryOperator<T> referenceBinder,
+                                 ImportReportDTO report) {
+        List<ParsedRow<T>> parsedRows = chunk.parallelStream()
+            .map(row -> parse(row, parser))
+            .collect(Collectors.toList());
+        List<T> entities = new ArrayList<>(parsedRows.size());
+        for (ParsedRow<T> parsedRow : parsedRows) {
+            if (parsedRow.error == null) {
+                entities.add(parsedRow.entity);
+            } else {
+                reject(report, parsedRow.line, parsedRow.error);
+            }
+        }
+        report.setRowsRead(report.getRowsRead() + chunk.size());
+        if (entities.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                entities.stream().map(referenceBinder).forEach(entityManager::persist);
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            });
+            report.setRowsImported(report.getRowsImported() + entities.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not import the rows {} to {}: {}", chunk.get(0).line, chunk.get(chunk.size() - 1).line, e.getMessage());
+            report.setRowsRejected(report.getRowsRejected() + entities.size());
+            addError(report, chunk.get(0).line, "Rows " + chunk.get(0).line + " to " + chunk.get(chunk.size() - 1).line +
+                " were rolled back: " + e.getMessage());
+        }
+    }
+
+    private <T> ParsedRow<T> parse(CsvRow row, Function<CsvRow, T> parser) {
+        T entity;
+        try {
+            entity = parser.apply(row);
+        } catch (IllegalArgumentException e) {
+            return new ParsedRow<>(row.line, null, e.getMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            return new ParsedRow<>(row.line, null, violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", ")));
+        }
+        return new ParsedRow<>(row.line, entity, null);
+    }
+
+    private void reject(ImportReportDTO report, long line, String message) {
+        report.setRowsRejected(report.getRowsRejected() + 1);
+        addError(report, line, message);
+    }
+
+    private void addError(ImportReportDTO report, long line, String message) {
+        if (report.getErrors().size() < applicationProperties.getBulk().getMaxErrors()) {
+            report.getErrors().add(new ImportReportDTO.RowError(line, message));
+        }
+    }
+
+    private static final class ParsedRow<T> {
+
+        private final long line;
+
+        private final T entity;
+
+        private final String error;
+
+        private ParsedRow(long line, T entity, String error) {
+            this.line = line;
+            this.entity = entity;
+            this.error = error;
+        }
+    }
+
+    /**
+     * A row of the CSV file, split lazily by the thread validating it.
+     */
+    private static final class CsvRow {
+
+        private final long line;
+
+        private final Map<String, Integer> header;
+
+        private final String content;
+
+        private List<String> values;
+
+        private CsvRow(long line, Map<String, Integer> header, String content) {
+            this.line = line;
+            this.header = header;
+            this.content = content;
+        }
+
+        String get(String column) {
+            if (values == null) {
+                values = split(content);
+            }
+            Integer index = header.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        Integer getInteger(String column) {
+            String value = get(column);
+            try {
+                return value == null ? null : Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + ": not an integer: " + value);
+            }
+        }
+
+        Long getReference(String column, Set<Long> existingIds) {
+            String value = get(column);
+            Long id;
+            try {
+                id = value == null ? null : Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + ": not an id: " + value);
+            }
+            if (id != null && !existingIds.contains(id)) {
+                throw new IllegalArgumentException(column + ": not found: " + id);
+            }
+            return id;
+        }
+
+        static List<String> split(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == QUOTE) {
+                    if (quoted && i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                        value.append(QUOTE);
+                        i++;
+                    } else {
+                        quoted = !quoted;
+                    }
+                } else if (c == SEPARATOR && !quoted) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.construction.service;
+
+/**
+ * Thrown when an imported CSV file cannot be read, for instance because of an unknown column.
+ * <p>
+ * Invalid rows do not throw this exception, they are reported in the import report.
+ */
+public class InvalidCsvException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCsvException(String message) {
+        super(message);
+    }
+}
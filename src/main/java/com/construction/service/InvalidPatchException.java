@@ -0,0 +1,18 @@
+package com.construction.service;
+
+/**
+ * Thrown when a JSON Merge Patch cannot be applied to an entity, for instance because it changes the id of the entity
+ * or references an entity which does not exist.
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+
+    public InvalidPatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
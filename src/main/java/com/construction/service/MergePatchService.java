@@ -0,0 +1,139 @@
+package com.construction.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Service applying JSON Merge Patches (RFC 7396) to entities.
+ * <p>
+ * The entity is loaded in the persistence context, from the second-level cache when it is there, and patched in
+ * place: with {@link org.hibernate.annotations.DynamicUpdate}, the flush sends a single {@code UPDATE} of the changed
+ * columns, and only the second-level cache entry of this entity is updated. Going through the persistence context
+ * keeps the entity listeners, the bean validation and the optimistic locking of a full update.
+ */
+@Service
+@Transactional
+public class MergePatchService {
+
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private final Logger log = LoggerFactory.getLogger(MergePatchService.class);
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    public MergePatchService(EntityManager entityManager, ObjectMapper objectMapper, Validator validator) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Apply a JSON Merge Patch to an entity.
+     * <p>
+     * Properties missing from the patch are kept, {@code null} properties are cleared. A relationship is given as
+     * {@code {"id": ...}}, and collections cannot be patched.
+     *
+     * @param entityClass     the class of the entity.
+     * @param id              the id of the entity.
+     * @param patch           the patch, a JSON object.
+     * @param expectedVersion the version the entity must have, {@code null} to patch any version.
+     * @param <T>             the type of the entity.
+     * @return the patched entity, flushed, or an empty {@link Optional} if the entity does not exist.
+     * @throws InvalidPatchException                   if the patch cannot be applied.
+     * @throws ObjectOptimisticLockingFailureException if the entity does not have the expected version, or was changed
+     *                                                 concurrently.
+     * @throws ConstraintViolationException            if the patched entity is not valid.
+     */
+    public <T> Optional<T> patch(Class<T> entityClass, Long id, JsonNode patch, Long expectedVersion) {
+        log.debug("Request to patch {} {} : {}", entityClass.getSimpleName(), id, patch);
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException("The patch must be a JSON object");
+        }
+        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        checkPatchable(entityType, id, patch);
+        T entity = entityManager.find(entityClass, id);
+        if (entity == null) {
+            return Optional.empty();
+        }
+        EntityPersister persister = entityManager.unwrap(SessionImplementor.class).getEntityPersister(null, entity);
+        if (expectedVersion != null && !expectedVersion.equals(persister.getVersion(entity))) {
+            throw new ObjectOptimisticLockingFailureException(entityClass, id);
+        }
+        try {
+            objectMapper.readerForUpdating(entity).readValue(patch);
+        } catch (IOException e) {
+            throw new InvalidPatchException("The patch does not match the " + entityClass.getSimpleName(), e);
+        }
+        for (SingularAttribute<? super T, ?> attribute : entityType.getSingularAttributes()) {
+            if (attribute.isAssociation() && patch.has(attribute.getName())) {
+                int index = persister.getEntityMetamodel().getPropertyIndex(attribute.getName());
+                persister.setPropertyValue(entity, index, findReference(attribute, patch.get(attribute.getName())));
+            }
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        try {
+            entityManager.flush();
+        } catch (OptimisticLockException e) {
+            // The shared entity manager does not translate the exceptions of a flush
+            throw new ObjectOptimisticLockingFailureException(entityClass, id, e);
+        }
+        return Optional.of(entity);
+    }
+
+    private void checkPatchable(EntityType<?> entityType, Long id, JsonNode patch) {
+        JsonNode patchedId = patch.get(entityType.getId(Long.class).getName());
+        if (patchedId != null && !Objects.equals(patchedId.asText(), String.valueOf(id))) {
+            throw new InvalidPatchException("The id of an entity cannot be changed");
+        }
+        for (Attribute<?, ?> attribute : entityType.getPluralAttributes()) {
+            if (patch.has(attribute.getName())) {
+                throw new InvalidPatchException("The collection " + attribute.getName() + " cannot be patched");
+            }
+        }
+    }
+
+    /**
+     * Read the entity referenced by a relationship of the patch, {@code null} to remove the relationship.
+     */
+    private Object findReference(SingularAttribute<?, ?> attribute, JsonNode reference) {
+        if (reference.isNull()) {
+            return null;
+        }
+        JsonNode referencedId = reference.get("id");
+        if (referencedId == null || !referencedId.canConvertToLong()) {
+            throw new InvalidPatchException("The " + attribute.getName() + " must be given by its id");
+        }
+        Object referenced = entityManager.find(attribute.getJavaType(), referencedId.asLong());
+        if (referenced == null) {
+            throw new InvalidPatchException("The " + attribute.getName() + " " + referencedId.asLong() + " does not exist");
+        }
+        return referenced;
+    }
+}
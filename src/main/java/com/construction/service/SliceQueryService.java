@@ -0,0 +1,220 @@
+package com.construction.service;
+
+import com.construction.config.ReplicaRoutingDataSource;
+
+import io.github.jhipster.service.QueryService;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Base class of the query services reading pages without counting the matching entities.
+ * <p>
+ * Pages are read with one more row than their size, to know if there is a next page: no {@code count(*)} is issued.
+ * The total number of entities is added afterwards, if needed, by the {@link CountService}.
+ * <p>
+ * Only the columns returned to the client are selected, through a constructor expression building the DTO. The joins
+ * made by the projection are created first, so that the specification can reuse them.
+ * <p>
+ * A cursor page is read with {@code where <criteria> and id > :lastId order by id}.
+ * <p>
+ * A single entity is loaded with an entity graph, fetching only the relationships expanded by the client.
+ * <p>
+ * The pages of the queries given a region are stored in the Hibernate query cache, one region per query so that
+ * the hit ratio of each query is known. Hibernate invalidates them when one of the queried tables is written. Such a
+ * query is never sent to the replica, whose result may lag behind the primary and would be stored as up to date: in a
+ * read-only transaction, it runs in a new transaction on the primary, which runs no statement when the page is cached.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ */
+public abstract class SliceQueryService<ENTITY> extends QueryService<ENTITY> {
+
+    private final EntityManager entityManager;
+
+    private final Class<ENTITY> entityClass;
+
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    private TransactionTemplate primaryTransactionTemplate;
+
+    protected SliceQueryService(EntityManager entityManager, Class<ENTITY> entityClass) {
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+    }
+
+    @Autowired(required = false)
+    public void setReplicaRoutingDataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+        // Not read-only, so that the replica is not used
+        this.primaryTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Return a page of the entities matching a {@link Specification}, projected on a DTO.
+     *
+     * @param specification the specification.
+     * @param pageable      the page to read.
+     * @param resultClass   the class of the DTO, which must have a constructor taking the selected values.
+     * @param projection    the function selecting the columns passed to the constructor of the DTO, from the root of the query.
+     * @param <R>           the type of the DTO.
+     * @return the page.
+     */
+    protected <R> Slice<R> findSlice(Specification<ENTITY> specification, Pageable pageable,
+                                     Class<R> resultClass, Function<Root<ENTITY>, Selection<?>[]> projection) {
+        return findSlice(specification, pageable, resultClass, projection, null);
+    }
+
+    /**
+     * Return a page of the entities matching a {@link Specification}, projected on a DTO, from the query cache.
+     *
+     * @param specification the specification.
+     * @param pageable      the page to read.
+     * @param resultClass   the class of the DTO, which must have a constructor taking the selected values.
+     * @param projection    the function selecting the columns passed to the constructor of the DTO, from the root of the query.
+     * @param cacheRegion   the query cache region of the query, or {@code null} if the query is not cached.
+     * @param <R>           the type of the DTO.
+     * @return the page.
+     */
+    protected <R> Slice<R> findSlice(Specification<ENTITY> specification, Pageable pageable, Class<R> resultClass,
+                                     Function<Root<ENTITY>, Selection<?>[]> projection, String cacheRegion) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = builder.createQuery(resultClass);
+        Root<ENTITY> root = query.from(entityClass);
+        query.select(builder.construct(resultClass, projection.apply(root)));
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(getResultList(() -> entityManager.createQuery(query), cacheRegion), pageable, false);
+        }
+        List<R> content = getResultList(() -> entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1), cacheRegion);
+        return toSlice(content, pageable);
+    }
+
+    /**
+     * Return the entities matching a {@link Specification}, with an id greater than {@code lastId}, projected on a DTO.
+     *
+     * @param specification the specification.
+     * @param idAttribute   the id attribute of the entity.
+     * @param lastId        the id of the last entity of the previous page.
+     * @param size          the size of the page.
+     * @param resultClass   the class of the DTO, which must have a constructor taking the selected values.
+     * @param projection    the function selecting the columns passed to the constructor of the DTO, from the root of the query.
+     * @param <R>           the type of the DTO.
+     * @return the page, sorted by id.
+     */
+    protected <R> Slice<R> findAfter(Specification<ENTITY> specification, SingularAttribute<? super ENTITY, Long> idAttribute,
+                                     Long lastId, int size, Class<R> resultClass, Function<Root<ENTITY>, Selection<?>[]> projection) {
+        return findAfter(specification, idAttribute, lastId, size, resultClass, projection, null);
+    }
+
+    /**
+     * Return the entities matching a {@link Specification}, with an id greater than {@code lastId}, projected on a DTO,
+     * from the query cache.
+     *
+     * @param specification the specification.
+     * @param idAttribute   the id attribute of the entity.
+     * @param lastId        the id of the last entity of the previous page.
+     * @param size          the size of the page.
+     * @param resultClass   the class of the DTO, which must have a constructor taking the selected values.
+     * @param projection    the function selecting the columns passed to the constructor of the DTO, from the root of the query.
+     * @param cacheRegion   the query cache region of the query, or {@code null} if the query is not cached.
+     * @param <R>           the type of the DTO.
+     * @return the page, sorted by id.
+     */
+    protected <R> Slice<R> findAfter(Specification<ENTITY> specification, SingularAttribute<? super ENTITY, Long> idAttribute,
+                                     Long lastId, int size, Class<R> resultClass, Function<Root<ENTITY>, Selection<?>[]> projection,
+                                     String cacheRegion) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = builder.createQuery(resultClass);
+        Root<ENTITY> root = query.from(entityClass);
+        ParameterExpression<Long> lastIdParameter = builder.parameter(Long.class);
+        query.select(builder.construct(resultClass, projection.apply(root)))
+            .where(specification.and((r, q, b) -> b.greaterThan(r.get(idAttribute), lastIdParameter)).toPredicate(root, query, builder))
+            .orderBy(builder.asc(root.get(idAttribute)));
+        List<R> content = getResultList(() -> entityManager.createQuery(query)
+            .setParameter(lastIdParameter, lastId)
+            .setMaxResults(size + 1), cacheRegion);
+        return toSlice(content, PageRequest.of(0, size, Sort.by(idAttribute.getName())));
+    }
+
+    /**
+     * Create an empty entity graph of the entity, to which the expanded relationships are added.
+     *
+     * @return the entity graph.
+     */
+    protected EntityGraph<ENTITY> createEntityGraph() {
+        return entityManager.createEntityGraph(entityClass);
+    }
+
+    /**
+     * Load an entity, fetching the relationships of an entity graph with it.
+     *
+     * @param id    the id of the entity.
+     * @param graph the relationships to fetch.
+     * @return the entity, or an empty {@link Optional} if it does not exist.
+     */
+    protected Optional<ENTITY> findOne(Long id, EntityGraph<ENTITY> graph) {
+        return Optional.ofNullable(entityManager.find(entityClass, id, Collections.singletonMap(GraphSemantic.FETCH.getJpaHintName(), graph)));
+    }
+
+    /**
+     * Run a query, created within the transaction which runs it.
+     */
+    <R> List<R> getResultList(Supplier<TypedQuery<R>> query, String cacheRegion) {
+        if (cacheRegion != null && replicaRoutingDataSource != null
+            && replicaRoutingDataSource.currentRoute() == ReplicaRoutingDataSource.Route.REPLICA) {
+            return primaryTransactionTemplate.execute(status -> cacheable(query.get(), cacheRegion).getResultList());
+        }
+        return cacheable(query.get(), cacheRegion).getResultList();
+    }
+
+    private static <R> TypedQuery<R> cacheable(TypedQuery<R> query, String cacheRegion) {
+        if (cacheRegion == null) {
+            return query;
+        }
+        return query
+            .setHint(QueryHints.HINT_CACHEABLE, true)
+            .setHint(QueryHints.HINT_CACHE_REGION, cacheRegion);
+    }
+
+    private static <R> Slice<R> toSlice(List<R> content, Pageable pageable) {
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+}
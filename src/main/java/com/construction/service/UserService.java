@@ -12,7 +12,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
@@ -76,6 +79,19 @@ public class UserService {
         return userRepository.findAllByLoginNot(pageable, Constants.ANONYMOUS_USER).map(UserDTO::new);
     }
 
+    /**
+     * Get the users whose login comes after the given one, in login order, without counting them.
+     *
+     * @param login the login of the last user of the previous page.
+     * @param size  the size of the page.
+     * @return the page of users.
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getAllManagedUsersAfter(String login, int size) {
+        return userRepository.findAllByLoginNotAndLoginGreaterThan(Constants.ANONYMOUS_USER, login, PageRequest.of(0, size, Sort.by("login")))
+            .map(UserDTO::new);
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserWithAuthoritiesByLogin(String login) {
         return userRepository.findOneWithAuthoritiesByLogin(login);
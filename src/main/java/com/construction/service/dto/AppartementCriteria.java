@@ -0,0 +1,133 @@
+package com.construction.service.dto;
+
+import io.github.jhipster.service.Criteria;
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Criteria class for the {@link com.construction.domain.Appartement} entity. This class is used
+ * in {@link com.construction.web.rest.AppartementResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /appartements?etage.batimentId.equals=5&numeroappart.greaterThan=100&name.contains=something}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ * <p>
+ * The {@code etage} criteria filter on the etage of the appartements, with the {@code etage.} prefix.
+ */
+public class AppartementCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter name;
+
+    private IntegerFilter numeroappart;
+
+    private LongFilter etageId;
+
+    private EtageCriteria etage;
+
+    public AppartementCriteria() {
+    }
+
+    public AppartementCriteria(AppartementCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.name = other.name == null ? null : other.name.copy();
+        this.numeroappart = other.numeroappart == null ? null : other.numeroappart.copy();
+        this.etageId = other.etageId == null ? null : other.etageId.copy();
+        this.etage = other.etage == null ? null : other.etage.copy();
+    }
+
+    @Override
+    public AppartementCriteria copy() {
+        return new AppartementCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getName() {
+        return name;
+    }
+
+    public void setName(StringFilter name) {
+        this.name = name;
+    }
+
+    public IntegerFilter getNumeroappart() {
+        return numeroappart;
+    }
+
+    public void setNumeroappart(IntegerFilter numeroappart) {
+        this.numeroappart = numeroappart;
+    }
+
+    public LongFilter getEtageId() {
+        return etageId;
+    }
+
+    public void setEtageId(LongFilter etageId) {
+        this.etageId = etageId;
+    }
+
+    public EtageCriteria getEtage() {
+        return etage;
+    }
+
+    public void setEtage(EtageCriteria etage) {
+        this.etage = etage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final AppartementCriteria that = (AppartementCriteria) o;
+        return
+            Objects.equals(id, that.id) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(numeroappart, that.numeroappart) &&
+            Objects.equals(etageId, that.etageId) &&
+            Objects.equals(etage, that.etage);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+        id,
+        name,
+        numeroappart,
+        etageId,
+        etage
+        );
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AppartementCriteria{" +
+                (id != null ? "id=" + id + ", " : "") +
+                (name != null ? "name=" + name + ", " : "") +
+                (numeroappart != null ? "numeroappart=" + numeroappart + ", " : "") +
+                (etageId != null ? "etageId=" + etageId + ", " : "") +
+                (etage != null ? "etage=" + etage + ", " : "") +
+            "}";
+    }
+
+}
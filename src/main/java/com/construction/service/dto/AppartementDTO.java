@@ -0,0 +1,139 @@
+package com.construction.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * A DTO for the {@link com.construction.domain.Appartement} entity.
+ * <p>
+ * The etage is referenced by its id, and only included when it is expanded.
+ */
+public class AppartementDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    @JsonIgnore
+    private Long version;
+
+    @NotNull
+    private String name;
+
+    private Integer numeroappart;
+
+    private Long etageId;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private EtageDTO etage;
+
+    public AppartementDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by the projection queries, the etage not being expanded.
+     */
+    public AppartementDTO(Long id, String name, Integer numeroappart, Long etageId) {
+        this.id = id;
+        this.name = name;
+        this.numeroappart = numeroappart;
+        this.etageId = etageId;
+    }
+
+    /**
+     * Constructor used by the projection queries, the etage being expanded from a left join.
+     */
+    public AppartementDTO(Long id, String name, Integer numeroappart, Long etageId, Integer etageNumeroetage, Long batimentId) {
+        this(id, name, numeroappart, etageId);
+        this.etage = etageId == null ? null : new EtageDTO(etageId, etageNumeroetage, batimentId);
+    }
+
+    /**
+     * Constructor used by the projection queries, the etage and its batiment being expanded from left joins.
+     */
+    public AppartementDTO(Long id, String name, Integer numeroappart,
+                          Long etageId, Integer etageNumeroetage, Long batimentId, String batimentName) {
+        this(id, name, numeroappart, etageId);
+        this.etage = etageId == null ? null : new EtageDTO(etageId, etageNumeroetage, batimentId, batimentName);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getNumeroappart() {
+        return numeroappart;
+    }
+
+    public void setNumeroappart(Integer numeroappart) {
+        this.numeroappart = numeroappart;
+    }
+
+    public Long getEtageId() {
+        return etageId;
+    }
+
+    public void setEtageId(Long etageId) {
+        this.etageId = etageId;
+    }
+
+    public EtageDTO getEtage() {
+        return etage;
+    }
+
+    public void setEtage(EtageDTO etage) {
+        this.etage = etage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AppartementDTO)) {
+            return false;
+        }
+        return id != null && id.equals(((AppartementDTO) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AppartementDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", numeroappart=" + getNumeroappart() +
+            ", etageId=" + getEtageId() +
+            ", etage=" + getEtage() +
+            "}";
+    }
+}
@@ -0,0 +1,92 @@
+package com.construction.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the occupancy of a {@link com.construction.domain.Batiment}: its number of etages and appartements.
+ */
+public class BatimentSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String name;
+
+    private long etageCount;
+
+    private long appartementCount;
+
+    public BatimentSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by the summary queries.
+     */
+    public BatimentSummaryDTO(Long id, String name, Long etageCount, Long appartementCount) {
+        this.id = id;
+        this.name = name;
+        this.etageCount = etageCount;
+        this.appartementCount = appartementCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getEtageCount() {
+        return etageCount;
+    }
+
+    public void setEtageCount(long etageCount) {
+        this.etageCount = etageCount;
+    }
+
+    public long getAppartementCount() {
+        return appartementCount;
+    }
+
+    public void setAppartementCount(long appartementCount) {
+        this.appartementCount = appartementCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BatimentSummaryDTO)) {
+            return false;
+        }
+        return id != null && id.equals(((BatimentSummaryDTO) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatimentSummaryDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", etageCount=" + getEtageCount() +
+            ", appartementCount=" + getAppartementCount() +
+            "}";
+    }
+}
@@ -0,0 +1,164 @@
+package com.construction.service.dto;
+
+import com.construction.domain.Appartement;
+import com.construction.domain.Batiment;
+import com.construction.domain.Etage;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A DTO representing a whole {@link Batiment}, with its etages and their appartements.
+ */
+public class BatimentTreeDTO {
+
+    private Long id;
+
+    private String name;
+
+    private List<EtageNode> etages;
+
+    public BatimentTreeDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BatimentTreeDTO(Batiment batiment, Collection<Etage> etages) {
+        this.id = batiment.getId();
+        this.name = batiment.getName();
+        this.etages = etages.stream()
+            .sorted(Comparator.comparing(Etage::getNumeroetage, Comparator.nullsLast(Comparator.naturalOrder())))
+            .map(EtageNode::new)
+            .collect(Collectors.toList());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<EtageNode> getEtages() {
+        return etages;
+    }
+
+    public void setEtages(List<EtageNode> etages) {
+        this.etages = etages;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatimentTreeDTO{" +
+            "id=" + id +
+            ", name='" + name + "'" +
+            ", etages=" + (etages == null ? 0 : etages.size()) +
+            "}";
+    }
+
+    /**
+     * An etage of the tree, with its appartements.
+     */
+    public static class EtageNode {
+
+        private Long id;
+
+        private Integer numeroetage;
+
+        private List<AppartementNode> appartements;
+
+        public EtageNode() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public EtageNode(Etage etage) {
+            this.id = etage.getId();
+            this.numeroetage = etage.getNumeroetage();
+            this.appartements = etage.getAppartements().stream()
+                .sorted(Comparator.comparing(Appartement::getNumeroappart, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(AppartementNode::new)
+                .collect(Collectors.toList());
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Integer getNumeroetage() {
+            return numeroetage;
+        }
+
+        public void setNumeroetage(Integer numeroetage) {
+            this.numeroetage = numeroetage;
+        }
+
+        public List<AppartementNode> getAppartements() {
+            return appartements;
+        }
+
+        public void setAppartements(List<AppartementNode> appartements) {
+            this.appartements = appartements;
+        }
+    }
+
+    /**
+     * A leaf of the tree.
+     */
+    public static class AppartementNode {
+
+        private Long id;
+
+        private String name;
+
+        private Integer numeroappart;
+
+        public AppartementNode() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public AppartementNode(Appartement appartement) {
+            this.id = appartement.getId();
+            this.name = appartement.getName();
+            this.numeroappart = appartement.getNumeroappart();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getNumeroappart() {
+            return numeroappart;
+        }
+
+        public void setNumeroappart(Integer numeroappart) {
+            this.numeroappart = numeroappart;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.construction.service.dto;
+
+import io.github.jhipster.service.Criteria;
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.github.jhipster.service.filter.LongFilter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Criteria class for the {@link com.construction.domain.Etage} entity. This class is used
+ * in {@link com.construction.web.rest.EtageResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /etages?batimentId.equals=5&numeroetage.in=1,2,3}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class EtageCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private IntegerFilter numeroetage;
+
+    private LongFilter batimentId;
+
+    public EtageCriteria() {
+    }
+
+    public EtageCriteria(EtageCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.numeroetage = other.numeroetage == null ? null : other.numeroetage.copy();
+        this.batimentId = other.batimentId == null ? null : other.batimentId.copy();
+    }
+
+    @Override
+    public EtageCriteria copy() {
+        return new EtageCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public IntegerFilter getNumeroetage() {
+        return numeroetage;
+    }
+
+    public void setNumeroetage(IntegerFilter numeroetage) {
+        this.numeroetage = numeroetage;
+    }
+
+    public LongFilter getBatimentId() {
+        return batimentId;
+    }
+
+    public void setBatimentId(LongFilter batimentId) {
+        this.batimentId = batimentId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final EtageCriteria that = (EtageCriteria) o;
+        return
+            Objects.equals(id, that.id) &&
+            Objects.equals(numeroetage, that.numeroetage) &&
+            Objects.equals(batimentId, that.batimentId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+        id,
+        numeroetage,
+        batimentId
+        );
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EtageCriteria{" +
+                (id != null ? "id=" + id + ", " : "") +
+                (numeroetage != null ? "numeroetage=" + numeroetage + ", " : "") +
+                (batimentId != null ? "batimentId=" + batimentId + ", " : "") +
+            "}";
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.construction.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * A DTO for the {@link com.construction.domain.Etage} entity.
+ * <p>
+ * The batiment is referenced by its id, and only included when it is expanded.
+ */
+public class EtageDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    @JsonIgnore
+    private Long version;
+
+    @NotNull
+    private Integer numeroetage;
+
+    private Long batimentId;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BatimentDTO batiment;
+
+    public EtageDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by the projection queries, the batiment not being expanded.
+     */
+    public EtageDTO(Long id, Integer numeroetage, Long batimentId) {
+        this.id = id;
+        this.numeroetage = numeroetage;
+        this.batimentId = batimentId;
+    }
+
+    /**
+     * Constructor used by the projection queries, the batiment being expanded from a left join.
+     */
+    public EtageDTO(Long id, Integer numeroetage, Long batimentId, String batimentName) {
+        this(id, numeroetage, batimentId);
+        this.batiment = batimentId == null ? null : new BatimentDTO(batimentId, batimentName);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Integer getNumeroetage() {
+        return numeroetage;
+    }
+
+    public void setNumeroetage(Integer numeroetage) {
+        this.numeroetage = numeroetage;
+    }
+
+    public Long getBatimentId() {
+        return batimentId;
+    }
+
+    public void setBatimentId(Long batimentId) {
+        this.batimentId = batimentId;
+    }
+
+    public BatimentDTO getBatiment() {
+        return batiment;
+    }
+
+    public void setBatiment(BatimentDTO batiment) {
+        this.batiment = batiment;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EtageDTO)) {
+            return false;
+        }
+        return id != null && id.equals(((EtageDTO) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EtageDTO{" +
+            "id=" + getId() +
+            ", numeroetage=" + getNumeroetage() +
+            ", batimentId=" + getBatimentId() +
+            ", batiment=" + getBatiment() +
+            "}";
+    }
+}
@@ -0,0 +1,32 @@
+package com.construction.service.mapper;
+
+import com.construction.domain.Appartement;
+import com.construction.service.dto.AppartementDTO;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper for the entity {@link Appartement} and its DTO {@link AppartementDTO}.
+ * <p>
+ * The etage is mapped to its id only, without initializing it.
+ */
+@Mapper(componentModel = "spring", uses = {EtageMapper.class})
+public interface AppartementMapper extends EntityMapper<AppartementDTO, Appartement> {
+
+    @Mapping(source = "etage.id", target = "etageId")
+    @Mapping(target = "etage", ignore = true)
+    AppartementDTO toDto(Appartement appartement);
+
+    @Mapping(source = "etageId", target = "etage")
+    Appartement toEntity(AppartementDTO appartementDTO);
+
+    default Appartement fromId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Appartement appartement = new Appartement();
+        appartement.setId(id);
+        return appartement;
+    }
+}
@@ -0,0 +1,27 @@
+package com.construction.service.mapper;
+
+import com.construction.domain.Batiment;
+import com.construction.service.dto.BatimentDTO;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper for the entity {@link Batiment} and its DTO {@link BatimentDTO}.
+ */
+@Mapper(componentModel = "spring", uses = {})
+public interface BatimentMapper extends EntityMapper<BatimentDTO, Batiment> {
+
+    @Mapping(target = "etages", ignore = true)
+    @Mapping(target = "removeEtage", ignore = true)
+    Batiment toEntity(BatimentDTO batimentDTO);
+
+    default Batiment fromId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Batiment batiment = new Batiment();
+        batiment.setId(id);
+        return batiment;
+    }
+}
@@ -0,0 +1,34 @@
+package com.construction.service.mapper;
+
+import com.construction.domain.Etage;
+import com.construction.service.dto.EtageDTO;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper for the entity {@link Etage} and its DTO {@link EtageDTO}.
+ * <p>
+ * The batiment is mapped to its id only, without initializing it.
+ */
+@Mapper(componentModel = "spring", uses = {BatimentMapper.class})
+public interface EtageMapper extends EntityMapper<EtageDTO, Etage> {
+
+    @Mapping(source = "batiment.id", target = "batimentId")
+    @Mapping(target = "batiment", ignore = true)
+    EtageDTO toDto(Etage etage);
+
+    @Mapping(source = "batimentId", target = "batiment")
+    @Mapping(target = "appartements", ignore = true)
+    @Mapping(target = "removeAppartement", ignore = true)
+    Etage toEntity(EtageDTO etageDTO);
+
+    default Etage fromId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Etage etage = new Etage();
+        etage.setId(id);
+        return etage;
+    }
+}
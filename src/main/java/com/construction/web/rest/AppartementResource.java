@@ -1,29 +1,59 @@
 package com.construction.web.rest;
 
+import com.construction.config.ApplicationProperties;
+import com.construction.config.ApplicationProperties.CountStrategy;
 import com.construction.domain.Appartement;
+import com.construction.domain.Etage;
 import com.construction.repository.AppartementRepository;
+import com.construction.service.AppartementQueryService;
+import com.construction.service.BulkService;
+import com.construction.service.EntityVersionService;
+import com.construction.service.ExportService;
+import com.construction.service.ImportService;
+import com.construction.service.InvalidCsvException;
+import com.construction.service.InvalidPatchException;
+import com.construction.service.MergePatchService;
+import com.construction.service.dto.AppartementCriteria;
+import com.construction.service.dto.AppartementDTO;
+import com.construction.service.dto.ImportReportDTO;
 import com.construction.web.rest.errors.BadRequestAlertException;
+import com.construction.web.rest.errors.PreconditionFailedAlertException;
+import com.construction.web.rest.util.CursorPaginationUtil;
+import com.construction.web.rest.util.EntityTagUtil;
+import com.construction.web.rest.util.ExpandUtil;
+import com.construction.web.rest.util.SlicePaginationUtil;
+import com.construction.web.rest.util.StreamingResponseUtil;
 
+import io.github.jhipster.service.filter.LongFilter;
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.PaginationUtil;
-import io.github.jhipster.web.util.ResponseUtil;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.construction.domain.Appartement}.
@@ -31,6 +61,7 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api")
 @Transactional
+@Validated
 public class AppartementResource {
 
     private final Logger log = LoggerFactory.getLogger(AppartementResource.class);
@@ -42,8 +73,32 @@ public class AppartementResource {
 
     private final AppartementRepository appartementRepository;
 
-    public AppartementResource(AppartementRepository appartementRepository) {
+    private final AppartementQueryService appartementQueryService;
+
+    private final EntityVersionService entityVersionService;
+
+    private final MergePatchService mergePatchService;
+
+    private final BulkService bulkService;
+
+    private final ExportService exportService;
+
+    private final ImportService importService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public AppartementResource(AppartementRepository appartementRepository, AppartementQueryService appartementQueryService,
+                               EntityVersionService entityVersionService, MergePatchService mergePatchService,
+                               BulkService bulkService, ExportService exportService,
+                               ImportService importService, ApplicationProperties applicationProperties) {
         this.appartementRepository = appartementRepository;
+        this.appartementQueryService = appartementQueryService;
+        this.entityVersionService = entityVersionService;
+        this.mergePatchService = mergePatchService;
+        this.bulkService = bulkService;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -68,49 +123,282 @@ public class AppartementResource {
     /**
      * {@code PUT  /appartements} : Updates an existing appartement.
      *
+     * <p>
+     * With an {@code If-Match} header, the appartement is only updated if it still has the version of this ETag.
+     * Without it, the last write wins.
+     *
      * @param appartement the appartement to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated appartement,
+     * @param ifMatch the {@code If-Match} header, the ETag of the appartement read by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, with body the updated appartement and its new ETag,
      * or with status {@code 400 (Bad Request)} if the appartement is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the appartement was changed since it was read,
      * or with status {@code 500 (Internal Server Error)} if the appartement couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/appartements")
-    public ResponseEntity<Appartement> updateAppartement(@Valid @RequestBody Appartement appartement) throws URISyntaxException {
+    public ResponseEntity<Appartement> updateAppartement(@Valid @RequestBody Appartement appartement,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Appartement : {}", appartement);
         if (appartement.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Appartement result = appartementRepository.save(appartement);
+        Optional<Long> expectedVersion = EntityTagUtil.parseVersion(ifMatch, ENTITY_NAME);
+        appartement.setVersion(expectedVersion.orElseGet(() -> entityVersionService.findVersion(Appartement.class, appartement.getId())
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"))));
+        Appartement result;
+        try {
+            result = appartementRepository.saveAndFlush(appartement);
+        } catch (OptimisticLockingFailureException e) {
+            if (!expectedVersion.isPresent()) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("The appartement was changed since it was read", ENTITY_NAME, "versionmismatch");
+        }
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, appartement.getId().toString()))
+            .eTag(EntityTagUtil.strongETag(result.getVersion()))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /appartements/:id} : Partially updates an existing appartement with a JSON Merge Patch.
+     * <p>
+     * Only the properties of the patch are changed, and only their columns are updated. The appartement is read from the
+     * second-level cache when it is there, so a small edit costs a single {@code UPDATE}.
+     *
+     * @param id the id of the appartement to update.
+     * @param patch the JSON Merge Patch to apply.
+     * @param ifMatch the {@code If-Match} header, the ETag of the appartement read by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, with body the updated appartement and its new ETag,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the appartement does not exist,
+     * or with status {@code 412 (Precondition Failed)} if the appartement was changed since it was read.
+     */
+    @PatchMapping(value = "/appartements/{id}", consumes = {MergePatchService.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Appartement> patchAppartement(@PathVariable Long id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to patch Appartement : {}, {}", id, patch);
+        Optional<Long> expectedVersion = EntityTagUtil.parseVersion(ifMatch, ENTITY_NAME);
+        Optional<Appartement> result;
+        try {
+            result = mergePatchService.patch(Appartement.class, id, patch, expectedVersion.orElse(null));
+        } catch (InvalidPatchException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidpatch");
+        } catch (OptimisticLockingFailureException e) {
+            if (!expectedVersion.isPresent()) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("The appartement was changed since it was read", ENTITY_NAME, "versionmismatch");
+        }
+        return result
+            .map(appartement -> ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
+                .eTag(EntityTagUtil.strongETag(appartement.getVersion()))
+                .body(appartement))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * {@code POST  /appartements/bulk} : Create new appartements.
+     *
+     * @param appartements the appartements to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the ids of the new appartements in request order,
+     * or with status {@code 400 (Bad Request)} if one of the appartements is not valid or has already an ID.
+     */
+    @PostMapping("/appartements/bulk")
+    public ResponseEntity<List<Long>> createAppartements(@RequestBody List<@Valid Appartement> appartements) {
+        log.debug("REST request to save {} Appartements", appartements.size());
+        checkBulkSize(appartements);
+        if (appartements.stream().anyMatch(appartement -> appartement.getId() != null)) {
+            throw new BadRequestAlertException("A new appartement cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        List<Long> ids = bulkService.createAll(appartements, Appartement::getId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".bulkCreated", String.valueOf(ids.size())))
+            .body(ids);
+    }
+
+    /**
+     * {@code PUT  /appartements/bulk} : Updates existing appartements.
+     *
+     * @param appartements the appartements to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ids of the updated appartements in request order,
+     * or with status {@code 400 (Bad Request)} if one of the appartements is not valid, has no ID or does not exist.
+     */
+    @PutMapping("/appartements/bulk")
+    public ResponseEntity<List<Long>> updateAppartements(@RequestBody List<@Valid Appartement> appartements) {
+        log.debug("REST request to update {} Appartements", appartements.size());
+        checkBulkSize(appartements);
+        if (appartements.stream().anyMatch(appartement -> appartement.getId() == null)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        try {
+            List<Long> ids = bulkService.updateAll(appartements, Appartement::getId, appartementRepository);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".bulkUpdated", String.valueOf(ids.size())))
+                .body(ids);
+        } catch (EntityNotFoundException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "idnotfound");
+        }
+    }
+
+    /**
+     * {@code POST  /appartements/import} : Import appartements from a semicolon-separated CSV file.
+     * <p>
+     * The file has a header row naming its columns among {@code name}, {@code numeroappart} and {@code etage_id}. It is imported in chunks, each one in its own transaction,
+     * so the valid rows are kept even if other rows are rejected.
+     *
+     * @param csv the CSV file, sent as the request body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report,
+     * or with status {@code 400 (Bad Request)} if the header of the file is not valid.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/appartements/import", consumes = "text/csv")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ImportReportDTO> importAppartements(InputStream csv) throws IOException {
+        log.debug("REST request to import Appartements");
+        try {
+            ImportReportDTO report = importService.importAppartements(csv);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".imported", String.valueOf(report.getRowsImported())))
+                .body(report);
+        } catch (InvalidCsvException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcsv");
+        }
+    }
+
     /**
      * {@code GET  /appartements} : get all the appartements.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of appartements in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param expand the relationships to include, such as {@code etage,etage.batiment}, the others being referenced by their id.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of appartements in body, counted according to
+     * {@code application.count.strategies.appartements}.
      */
     @GetMapping("/appartements")
-    public ResponseEntity<List<Appartement>> getAllAppartements(Pageable pageable) {
-        log.debug("REST request to get a page of Appartements");
-        Page<Appartement> page = appartementRepository.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AppartementDTO>> getAllAppartements(AppartementCriteria criteria, Pageable pageable,
+            @RequestParam(value = ExpandUtil.EXPAND_PARAMETER, required = false) Set<String> expand) {
+        log.debug("REST request to get Appartements by criteria: {}", criteria);
+        CountStrategy countStrategy = applicationProperties.getCount().getStrategy("appartements");
+        Slice<AppartementDTO> page = appartementQueryService.findByCriteria(criteria, pageable, countStrategy,
+            ExpandUtil.parseExpand(expand, AppartementQueryService.EXPANDABLE, ENTITY_NAME));
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page, countStrategy);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.weakETag(page)).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /appartements?after=:cursor} : get a page of appartements using cursor pagination.
+     *
+     * @param after the cursor of the last appartement of the previous page, empty for the first page.
+     * @param size the size of the page.
+     * @param criteria the criteria which the requested entities should match.
+     * @param expand the relationships to include, such as {@code etage,etage.batiment}, the others being referenced by their id.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the appartements in body and the cursor of the next page in the {@code Link} header.
+     */
+    @GetMapping(value = "/appartements", params = CursorPaginationUtil.AFTER_PARAMETER)
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AppartementDTO>> getAllAppartementsAfter(@RequestParam(CursorPaginationUtil.AFTER_PARAMETER) String after,
+                                                                     @RequestParam(value = CursorPaginationUtil.SIZE_PARAMETER, defaultValue = "20") int size,
+                                                                     AppartementCriteria criteria,
+            @RequestParam(value = ExpandUtil.EXPAND_PARAMETER, required = false) Set<String> expand) {
+        log.debug("REST request to get a page of Appartements by criteria: {}, after : {}", criteria, after);
+        Long lastId = CursorPaginationUtil.decodeLongCursor(after, ENTITY_NAME).orElse(Long.MIN_VALUE);
+        Slice<AppartementDTO> slice = appartementQueryService.findByCriteriaAfter(criteria, lastId, CursorPaginationUtil.pageSize(size),
+            ExpandUtil.parseExpand(expand, AppartementQueryService.EXPANDABLE, ENTITY_NAME));
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, AppartementDTO::getId);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.weakETag(slice)).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /etages/:id/appartements} : get a page of the appartements of the "id" etage.
+     * <p>
+     * The appartements are read by their {@code etage_id} foreign key, without loading the etage nor its other appartements.
+     *
+     * @param id the id of the etage.
+     * @param pageable the pagination information.
+     * @param expand the relationships to include, such as {@code etage,etage.batiment}, the others being referenced by their id.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of appartements in body,
+     * or with status {@code 404 (Not Found)} if the etage does not exist.
+     */
+    @GetMapping("/etages/{id}/appartements")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AppartementDTO>> getEtageAppartements(@PathVariable Long id, Pageable pageable,
+            @RequestParam(value = ExpandUtil.EXPAND_PARAMETER, required = false) Set<String> expand) {
+        log.debug("REST request to get the appartements of Etage : {}", id);
+        LongFilter etageId = new LongFilter();
+        etageId.setEquals(id);
+        AppartementCriteria criteria = new AppartementCriteria();
+        criteria.setEtageId(etageId);
+        CountStrategy countStrategy = applicationProperties.getCount().getStrategy("appartements");
+        Slice<AppartementDTO> page = appartementQueryService.findByCriteria(criteria, pageable, countStrategy,
+            ExpandUtil.parseExpand(expand, AppartementQueryService.EXPANDABLE, ENTITY_NAME));
+        if (!page.hasContent() && page.isFirst() && !entityVersionService.findVersion(Etage.class, id).isPresent()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page, countStrategy);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.weakETag(page)).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /appartements/count} : count all the appartements.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/appartements/count")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Long> countAppartements(AppartementCriteria criteria) {
+        log.debug("REST request to count Appartements by criteria: {}", criteria);
+        return ResponseEntity.ok().body(appartementQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /appartements/export} : export all the appartements, with their etage and batiment.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header, the body is gzip-encoded if it contains {@code gzip}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the appartements streamed in body as newline-delimited JSON.
+     */
+    @GetMapping(value = "/appartements/export", produces = ExportService.NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    public ResponseEntity<StreamingResponseBody> exportAppartements(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("REST request to export all Appartements");
+        return StreamingResponseUtil.stream(ExportService.NDJSON_VALUE, acceptEncoding, exportService::exportAppartements);
     }
 
     /**
      * {@code GET  /appartements/:id} : get the "id" appartement.
      *
+     * <p>
+     * With an {@code If-None-Match} header, the version of the appartement is checked first, from the second-level cache or with a
+     * query reading only the version, and the appartement is not loaded if the client already has it. With expanded relationships,
+     * the ETag is hashed from the response instead.
+     *
      * @param id the id of the appartement to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the appartement, or with status {@code 404 (Not Found)}.
+     * @param expand the relationships to include, such as {@code etage,etage.batiment}, the others being referenced by their id.
+     * @param ifNoneMatch the {@code If-None-Match} header, the ETags of the appartement known by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, with body the appartement and its ETag,
+     * or with status {@code 304 (Not Modified)} if the client has the current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/appartements/{id}")
-    public ResponseEntity<Appartement> getAppartement(@PathVariable Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<AppartementDTO> getAppartement(@PathVariable Long id,
+            @RequestParam(value = ExpandUtil.EXPAND_PARAMETER, required = false) Set<String> expand,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Appartement : {}", id);
-        Optional<Appartement> appartement = appartementRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(appartement);
+        Set<String> expanded = ExpandUtil.parseExpand(expand, AppartementQueryService.EXPANDABLE, ENTITY_NAME);
+        if (ifNoneMatch != null && expanded.isEmpty()) {
+            Optional<String> eTag = entityVersionService.findVersion(Appartement.class, id).map(EntityTagUtil::strongETag);
+            if (eTag.isPresent() && EntityTagUtil.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
+        Optional<AppartementDTO> appartementDTO = appartementQueryService.findOne(id, expanded);
+        if (!expanded.isEmpty()) {
+            return EntityTagUtil.wrapOrNotFound(appartementDTO, EntityTagUtil::weakETag);
+        }
+        return EntityTagUtil.wrapOrNotFound(appartementDTO, dto -> EntityTagUtil.strongETag(dto.getVersion()));
     }
 
     /**
@@ -125,4 +413,10 @@ public class AppartementResource {
         appartementRepository.deleteById(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString())).build();
     }
+
+    private void checkBulkSize(List<Appartement> appartements) {
+        if (appartements.size() > applicationProperties.getBulk().getMaxItems()) {
+            throw new BadRequestAlertException("Too many appartements in a single request", ENTITY_NAME, "bulktoolarge");
+        }
+    }
 }
@@ -1,15 +1,21 @@
 package com.construction.web.rest;
 
+import com.construction.config.ApplicationProperties;
+import com.construction.config.ApplicationProperties.CountStrategy;
+import com.construction.config.audit.AuditEventConverter;
+import com.construction.domain.PersistentAuditEvent;
 import com.construction.service.AuditEventService;
+import com.construction.web.rest.util.CursorPaginationUtil;
+import com.construction.web.rest.util.SlicePaginationUtil;
 
-import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.springframework.boot.actuate.audit.AuditEvent;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -25,10 +31,19 @@ import java.util.List;
 @RequestMapping("/management/audits")
 public class AuditResource {
 
+    private static final String ENTITY_NAME = "auditEvent";
+
     private final AuditEventService auditEventService;
 
-    public AuditResource(AuditEventService auditEventService) {
+    private final AuditEventConverter auditEventConverter;
+
+    private final ApplicationProperties applicationProperties;
+
+    public AuditResource(AuditEventService auditEventService, AuditEventConverter auditEventConverter,
+                         ApplicationProperties applicationProperties) {
         this.auditEventService = auditEventService;
+        this.auditEventConverter = auditEventConverter;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -39,11 +54,29 @@ public class AuditResource {
      */
     @GetMapping
     public ResponseEntity<List<AuditEvent>> getAll(Pageable pageable) {
-        Page<AuditEvent> page = auditEventService.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        CountStrategy countStrategy = applicationProperties.getCount().getStrategy("audits");
+        Slice<AuditEvent> page = auditEventService.findAll(pageable, countStrategy);
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page, countStrategy);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /audits?after=:cursor} : get a page of {@link AuditEvent}s, most recent first, using cursor pagination.
+     *
+     * @param after the cursor of the last {@link AuditEvent} of the previous page, empty for the first page.
+     * @param size the size of the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the list of {@link AuditEvent}s in body and the cursor of the next page in the {@code Link} header.
+     */
+    @GetMapping(params = CursorPaginationUtil.AFTER_PARAMETER)
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AuditEvent>> getAllAfter(@RequestParam(CursorPaginationUtil.AFTER_PARAMETER) String after,
+                                                        @RequestParam(value = CursorPaginationUtil.SIZE_PARAMETER, defaultValue = "20") int size) {
+        Long lastId = CursorPaginationUtil.decodeLongCursor(after, ENTITY_NAME).orElse(Long.MAX_VALUE);
+        Slice<PersistentAuditEvent> slice = auditEventService.findAllBefore(lastId, CursorPaginationUtil.pageSize(size));
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, PersistentAuditEvent::getId);
+        return new ResponseEntity<>(slice.map(auditEventConverter::convertToAuditEvent).getContent(), headers, HttpStatus.OK);
+    }
+
     /**
      * {@code GET  /audits} : get a page of {@link AuditEvent} between the {@code fromDate} and {@code toDate}.
      *
@@ -61,8 +94,9 @@ public class AuditResource {
         Instant from = fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
         Instant to = toDate.atStartOfDay(ZoneId.systemDefault()).plusDays(1).toInstant();
 
-        Page<AuditEvent> page = auditEventService.findByDates(from, to, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        CountStrategy countStrategy = applicationProperties.getCount().getStrategy("audits");
+        Slice<AuditEvent> page = auditEventService.findByDates(from, to, pageable, countStrategy);
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page, countStrategy);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
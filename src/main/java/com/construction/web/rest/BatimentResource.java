@@ -1,25 +1,59 @@
 package com.construction.web.rest;
 
+import com.construction.config.ApplicationProperties;
+import com.construction.config.ApplicationProperties.CountStrategy;
 import com.construction.domain.Batiment;
 import com.construction.repository.BatimentRepository;
+import com.construction.security.AuthoritiesConstants;
+import com.construction.service.BatimentQueryService;
+import com.construction.service.BatimentSummaryService;
+import com.construction.service.BatimentTreeService;
+import com.construction.service.BulkService;
+import com.construction.service.EntityVersionService;
+import com.construction.service.ExportService;
+import com.construction.service.ImportService;
+import com.construction.service.InvalidCsvException;
+import com.construction.service.InvalidPatchException;
+import com.construction.service.MergePatchService;
+import com.construction.service.dto.BatimentCriteria;
+import com.construction.service.dto.BatimentDTO;
+import com.construction.service.dto.BatimentSummaryDTO;
+import com.construction.service.dto.BatimentTreeDTO;
+import com.construction.service.dto.ImportReportDTO;
+import com.construction.service.mapper.BatimentMapper;
 import com.construction.web.rest.errors.BadRequestAlertException;
+import com.construction.web.rest.errors.PreconditionFailedAlertException;
+import com.construction.web.rest.util.CursorPaginationUtil;
+import com.construction.web.rest.util.EntityTagUtil;
+import com.construction.web.rest.util.SlicePaginationUtil;
+import com.construction.web.rest.util.StreamingResponseUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -31,6 +65,7 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api")
 @Transactional
+@Validated
 public class BatimentResource {
 
     private final Logger log = LoggerFactory.getLogger(BatimentResource.class);
@@ -42,8 +77,42 @@ public class BatimentResource {
 
     private final BatimentRepository batimentRepository;
 
-    public BatimentResource(BatimentRepository batimentRepository) {
+    private final BatimentQueryService batimentQueryService;
+
+    private final BatimentMapper batimentMapper;
+
+    private final EntityVersionService entityVersionService;
+
+    private final MergePatchService mergePatchService;
+
+    private final BulkService bulkService;
+
+    private final ExportService exportService;
+
+    private final ImportService importService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final BatimentTreeService batimentTreeService;
+
+    private final BatimentSummaryService batimentSummaryService;
+
+    public BatimentResource(BatimentRepository batimentRepository, BatimentQueryService batimentQueryService, BatimentMapper batimentMapper,
+                            EntityVersionService entityVersionService, MergePatchService mergePatchService,
+                            BatimentTreeService batimentTreeService, BatimentSummaryService batimentSummaryService,
+                            BulkService bulkService, ExportService exportService,
+                            ImportService importService, ApplicationProperties applicationProperties) {
         this.batimentRepository = batimentRepository;
+        this.batimentQueryService = batimentQueryService;
+        this.batimentMapper = batimentMapper;
+        this.entityVersionService = entityVersionService;
+        this.mergePatchService = mergePatchService;
+        this.batimentTreeService = batimentTreeService;
+        this.batimentSummaryService = batimentSummaryService;
+        this.bulkService = bulkService;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -68,49 +137,277 @@ public class BatimentResource {
     /**
      * {@code PUT  /batiments} : Updates an existing batiment.
      *
+     * <p>
+     * With an {@code If-Match} header, the batiment is only updated if it still has the version of this ETag.
+     * Without it, the last write wins.
+     *
      * @param batiment the batiment to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated batiment,
+     * @param ifMatch the {@code If-Match} header, the ETag of the batiment read by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, with body the updated batiment and its new ETag,
      * or with status {@code 400 (Bad Request)} if the batiment is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the batiment was changed since it was read,
      * or with status {@code 500 (Internal Server Error)} if the batiment couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/batiments")
-    public ResponseEntity<Batiment> updateBatiment(@Valid @RequestBody Batiment batiment) throws URISyntaxException {
+    public ResponseEntity<Batiment> updateBatiment(@Valid @RequestBody Batiment batiment,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Batiment : {}", batiment);
         if (batiment.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Batiment result = batimentRepository.save(batiment);
+        Optional<Long> expectedVersion = EntityTagUtil.parseVersion(ifMatch, ENTITY_NAME);
+        batiment.setVersion(expectedVersion.orElseGet(() -> entityVersionService.findVersion(Batiment.class, batiment.getId())
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"))));
+        Batiment result;
+        try {
+            result = batimentRepository.saveAndFlush(batiment);
+        } catch (OptimisticLockingFailureException e) {
+            if (!expectedVersion.isPresent()) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("The batiment was changed since it was read", ENTITY_NAME, "versionmismatch");
+        }
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, batiment.getId().toString()))
+            .eTag(EntityTagUtil.strongETag(result.getVersion()))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /batiments/:id} : Partially updates an existing batiment with a JSON Merge Patch.
+     * <p>
+     * Only the properties of the patch are changed, and only their columns are updated. The batiment is read from the
+     * second-level cache when it is there, so a small edit costs a single {@code UPDATE}.
+     *
+     * @param id the id of the batiment to update.
+     * @param patch the JSON Merge Patch to apply.
+     * @param ifMatch the {@code If-Match} header, the ETag of the batiment read by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, with body the updated batiment and its new ETag,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the batiment does not exist,
+     * or with status {@code 412 (Precondition Failed)} if the batiment was changed since it was read.
+     */
+    @PatchMapping(value = "/batiments/{id}", consumes = {MergePatchService.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Batiment> patchBatiment(@PathVariable Long id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to patch Batiment : {}, {}", id, patch);
+        Optional<Long> expectedVersion = EntityTagUtil.parseVersion(ifMatch, ENTITY_NAME);
+        Optional<Batiment> result;
+        try {
+            result = mergePatchService.patch(Batiment.class, id, patch, expectedVersion.orElse(null));
+        } catch (InvalidPatchException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidpatch");
+        } catch (OptimisticLockingFailureException e) {
+            if (!expectedVersion.isPresent()) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("The batiment was changed since it was read", ENTITY_NAME, "versionmismatch");
+        }
+        return result
+            .map(batiment -> ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
+                .eTag(EntityTagUtil.strongETag(batiment.getVersion()))
+                .body(batiment))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * {@code POST  /batiments/bulk} : Create new batiments.
+     *
+     * @param batiments the batiments to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the ids of the new batiments in request order,
+     * or with status {@code 400 (Bad Request)} if one of the batiments is not valid or has already an ID.
+     */
+    @PostMapping("/batiments/bulk")
+    public ResponseEntity<List<Long>> createBatiments(@RequestBody List<@Valid Batiment> batiments) {
+        log.debug("REST request to save {} Batiments", batiments.size());
+        checkBulkSize(batiments);
+        if (batiments.stream().anyMatch(batiment -> batiment.getId() != null)) {
+            throw new BadRequestAlertException("A new batiment cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        List<Long> ids = bulkService.createAll(batiments, Batiment::getId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".bulkCreated", String.valueOf(ids.size())))
+            .body(ids);
+    }
+
+    /**
+     * {@code PUT  /batiments/bulk} : Updates existing batiments.
+     *
+     * @param batiments the batiments to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ids of the updated batiments in request order,
+     * or with status {@code 400 (Bad Request)} if one of the batiments is not valid, has no ID or does not exist.
+     */
+    @PutMapping("/batiments/bulk")
+    public ResponseEntity<List<Long>> updateBatiments(@RequestBody List<@Valid Batiment> batiments) {
+        log.debug("REST request to update {} Batiments", batiments.size());
+        checkBulkSize(batiments);
+        if (batiments.stream().anyMatch(batiment -> batiment.getId() == null)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        try {
+            List<Long> ids = bulkService.updateAll(batiments, Batiment::getId, batimentRepository);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".bulkUpdated", String.valueOf(ids.size())))
+                .body(ids);
+        } catch (EntityNotFoundException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "idnotfound");
+        }
+    }
+
+    /**
+     * {@code POST  /batiments/import} : Import batiments from a semicolon-separated CSV file.
+     * <p>
+     * The file has a header row naming its columns among {@code name}. It is imported in chunks, each one in its own transaction,
+     * so the valid rows are kept even if other rows are rejected.
+     *
+     * @param csv the CSV file, sent as the request body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report,
+     * or with status {@code 400 (Bad Request)} if the header of the file is not valid.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/batiments/import", consumes = "text/csv")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ImportReportDTO> importBatiments(InputStream csv) throws IOException {
+        log.debug("REST request to import Batiments");
+        try {
+            ImportReportDTO report = importService.importBatiments(csv);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".imported", String.valueOf(report.getRowsImported())))
+                .body(report);
+        } catch (InvalidCsvException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcsv");
+        }
+    }
+
     /**
      * {@code GET  /batiments} : get all the batiments.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of batiments in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of batiments in body, counted according to
+     * {@code application.count.strategies.batiments}.
      */
     @GetMapping("/batiments")
-    public ResponseEntity<List<Batiment>> getAllBatiments(Pageable pageable) {
-        log.debug("REST request to get a page of Batiments");
-        Page<Batiment> page = batimentRepository.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<BatimentDTO>> getAllBatiments(BatimentCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get Batiments by criteria: {}", criteria);
+        CountStrategy countStrategy = applicationProperties.getCount().getStrategy("batiments");
+        Slice<BatimentDTO> page = batimentQueryService.findByCriteria(criteria, pageable, countStrategy);
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page, countStrategy);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.weakETag(page)).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /batiments?after=:cursor} : get a page of batiments using cursor pagination.
+     *
+     * @param after the cursor of the last batiment of the previous page, empty for the first page.
+     * @param size the size of the page.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the batiments in body and the cursor of the next page in the {@code Link} header.
+     */
+    @GetMapping(value = "/batiments", params = CursorPaginationUtil.AFTER_PARAMETER)
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<BatimentDTO>> getAllBatimentsAfter(@RequestParam(CursorPaginationUtil.AFTER_PARAMETER) String after,
+                                                               @RequestParam(value = CursorPaginationUtil.SIZE_PARAMETER, defaultValue = "20") int size,
+                                                               BatimentCriteria criteria) {
+        log.debug("REST request to get a page of Batiments by criteria: {}, after : {}", criteria, after);
+        Long lastId = CursorPaginationUtil.decodeLongCursor(after, ENTITY_NAME).orElse(Long.MIN_VALUE);
+        Slice<BatimentDTO> slice = batimentQueryService.findByCriteriaAfter(criteria, lastId, CursorPaginationUtil.pageSize(size));
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, BatimentDTO::getId);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.weakETag(slice)).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /batiments/count} : count all the batiments.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/batiments/count")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Long> countBatiments(BatimentCriteria criteria) {
+        log.debug("REST request to count Batiments by criteria: {}", criteria);
+        return ResponseEntity.ok().body(batimentQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /batiments/summary} : get the number of etages and appartements of every batiment.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the summaries in body, sorted by id.
+     */
+    @GetMapping("/batiments/summary")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BatimentSummaryDTO>> getBatimentSummaries() {
+        log.debug("REST request to get the summaries of all Batiments");
+        return ResponseEntity.ok().body(batimentSummaryService.findAll());
+    }
+
+    /**
+     * {@code POST  /batiments/summary/rebuild} : recompute the summaries of all the batiments from the database.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the rebuilt summaries in body, sorted by id.
+     */
+    @PostMapping("/batiments/summary/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<List<BatimentSummaryDTO>> rebuildBatimentSummaries() {
+        log.debug("REST request to rebuild the summaries of all Batiments");
+        return ResponseEntity.ok().body(batimentSummaryService.rebuild());
+    }
+
+    /**
+     * {@code GET  /batiments/export} : export all the batiments.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header, the body is gzip-encoded if it contains {@code gzip}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the batiments streamed in body as newline-delimited JSON.
+     */
+    @GetMapping(value = "/batiments/export", produces = ExportService.NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    public ResponseEntity<StreamingResponseBody> exportBatiments(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("REST request to export all Batiments");
+        return StreamingResponseUtil.stream(ExportService.NDJSON_VALUE, acceptEncoding, exportService::exportBatiments);
     }
 
     /**
      * {@code GET  /batiments/:id} : get the "id" batiment.
      *
+     * <p>
+     * With an {@code If-None-Match} header, the version of the batiment is checked first, from the second-level cache or with a
+     * query reading only the version, and the batiment is not loaded if the client already has it.
+     *
      * @param id the id of the batiment to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the batiment, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the {@code If-None-Match} header, the ETags of the batiment known by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, with body the batiment and its ETag,
+     * or with status {@code 304 (Not Modified)} if the client has the current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/batiments/{id}")
-    public ResponseEntity<Batiment> getBatiment(@PathVariable Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<BatimentDTO> getBatiment(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Batiment : {}", id);
-        Optional<Batiment> batiment = batimentRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(batiment);
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = entityVersionService.findVersion(Batiment.class, id).map(EntityTagUtil::strongETag);
+            if (eTag.isPresent() && EntityTagUtil.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
+        Optional<BatimentDTO> batimentDTO = batimentRepository.findById(id).map(batimentMapper::toDto);
+        return EntityTagUtil.wrapOrNotFound(batimentDTO, dto -> EntityTagUtil.strongETag(dto.getVersion()));
+    }
+
+    /**
+     * {@code GET  /batiments/:id/tree} : get the "id" batiment with its etages and their appartements.
+     *
+     * @param id the id of the batiment to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the batiment hierarchy, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/batiments/{id}/tree")
+    @Transactional(readOnly = true)
+    public ResponseEntity<BatimentTreeDTO> getBatimentTree(@PathVariable Long id) {
+        log.debug("REST request to get Batiment tree : {}", id);
+        return ResponseUtil.wrapOrNotFound(batimentTreeService.findTree(id));
     }
 
     /**
@@ -125,4 +422,10 @@ public class BatimentResource {
         batimentRepository.deleteById(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString())).build();
     }
+
+    private void checkBulkSize(List<Batiment> batiments) {
+        if (batiments.size() > applicationProperties.getBulk().getMaxItems()) {
+            throw new BadRequestAlertException("Too many batiments in a single request", ENTITY_NAME, "bulktoolarge");
+        }
+    }
 }
@@ -1,29 +1,59 @@
 package com.construction.web.rest;
 
+import com.construction.config.ApplicationProperties;
+import com.construction.config.ApplicationProperties.CountStrategy;
+import com.construction.domain.Batiment;
 import com.construction.domain.Etage;
 import com.construction.repository.EtageRepository;
+import com.construction.service.BulkService;
+import com.construction.service.EntityVersionService;
+import com.construction.service.EtageQueryService;
+import com.construction.service.ExportService;
+import com.construction.service.ImportService;
+import com.construction.service.InvalidCsvException;
+import com.construction.service.InvalidPatchException;
+import com.construction.service.MergePatchService;
+import com.construction.service.dto.EtageCriteria;
+import com.construction.service.dto.EtageDTO;
+import com.construction.service.dto.ImportReportDTO;
 import com.construction.web.rest.errors.BadRequestAlertException;
+import com.construction.web.rest.errors.PreconditionFailedAlertException;
+import com.construction.web.rest.util.CursorPaginationUtil;
+import com.construction.web.rest.util.EntityTagUtil;
+import com.construction.web.rest.util.ExpandUtil;
+import com.construction.web.rest.util.SlicePaginationUtil;
+import com.construction.web.rest.util.StreamingResponseUtil;
 
+import io.github.jhipster.service.filter.LongFilter;
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.PaginationUtil;
-import io.github.jhipster.web.util.ResponseUtil;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.construction.domain.Etage}.
@@ -31,6 +61,7 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api")
 @Transactional
+@Validated
 public class EtageResource {
 
     private final Logger log = LoggerFactory.getLogger(EtageResource.class);
@@ -42,8 +73,32 @@ public class EtageResource {
 
     private final EtageRepository etageRepository;
 
-    public EtageResource(EtageRepository etageRepository) {
+    private final EtageQueryService etageQueryService;
+
+    private final EntityVersionService entityVersionService;
+
+    private final MergePatchService mergePatchService;
+
+    private final BulkService bulkService;
+
+    private final ExportService exportService;
+
+    private final ImportService importService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public EtageResource(EtageRepository etageRepository, EtageQueryService etageQueryService,
+                         EntityVersionService entityVersionService, MergePatchService mergePatchService,
+                         BulkService bulkService, ExportService exportService,
+                         ImportService importService, ApplicationProperties applicationProperties) {
         this.etageRepository = etageRepository;
+        this.etageQueryService = etageQueryService;
+        this.entityVersionService = entityVersionService;
+        this.mergePatchService = mergePatchService;
+        this.bulkService = bulkService;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -68,49 +123,282 @@ public class EtageResource {
     /**
      * {@code PUT  /etages} : Updates an existing etage.
      *
+     * <p>
+     * With an {@code If-Match} header, the etage is only updated if it still has the version of this ETag.
+     * Without it, the last write wins.
+     *
      * @param etage the etage to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated etage,
+     * @param ifMatch the {@code If-Match} header, the ETag of the etage read by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, with body the updated etage and its new ETag,
      * or with status {@code 400 (Bad Request)} if the etage is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the etage was changed since it was read,
      * or with status {@code 500 (Internal Server Error)} if the etage couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/etages")
-    public ResponseEntity<Etage> updateEtage(@Valid @RequestBody Etage etage) throws URISyntaxException {
+    public ResponseEntity<Etage> updateEtage(@Valid @RequestBody Etage etage,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Etage : {}", etage);
         if (etage.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Etage result = etageRepository.save(etage);
+        Optional<Long> expectedVersion = EntityTagUtil.parseVersion(ifMatch, ENTITY_NAME);
+        etage.setVersion(expectedVersion.orElseGet(() -> entityVersionService.findVersion(Etage.class, etage.getId())
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"))));
+        Etage result;
+        try {
+            result = etageRepository.saveAndFlush(etage);
+        } catch (OptimisticLockingFailureException e) {
+            if (!expectedVersion.isPresent()) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("The etage was changed since it was read", ENTITY_NAME, "versionmismatch");
+        }
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, etage.getId().toString()))
+            .eTag(EntityTagUtil.strongETag(result.getVersion()))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /etages/:id} : Partially updates an existing etage with a JSON Merge Patch.
+     * <p>
+     * Only the properties of the patch are changed, and only their columns are updated. The etage is read from the
+     * second-level cache when it is there, so a small edit costs a single {@code UPDATE}.
+     *
+     * @param id the id of the etage to update.
+     * @param patch the JSON Merge Patch to apply.
+     * @param ifMatch the {@code If-Match} header, the ETag of the etage read by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, with body the updated etage and its new ETag,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the etage does not exist,
+     * or with status {@code 412 (Precondition Failed)} if the etage was changed since it was read.
+     */
+    @PatchMapping(value = "/etages/{id}", consumes = {MergePatchService.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Etage> patchEtage(@PathVariable Long id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to patch Etage : {}, {}", id, patch);
+        Optional<Long> expectedVersion = EntityTagUtil.parseVersion(ifMatch, ENTITY_NAME);
+        Optional<Etage> result;
+        try {
+            result = mergePatchService.patch(Etage.class, id, patch, expectedVersion.orElse(null));
+        } catch (InvalidPatchException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidpatch");
+        } catch (OptimisticLockingFailureException e) {
+            if (!expectedVersion.isPresent()) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("The etage was changed since it was read", ENTITY_NAME, "versionmismatch");
+        }
+        return result
+            .map(etage -> ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
+                .eTag(EntityTagUtil.strongETag(etage.getVersion()))
+                .body(etage))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * {@code POST  /etages/bulk} : Create new etages.
+     *
+     * @param etages the etages to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the ids of the new etages in request order,
+     * or with status {@code 400 (Bad Request)} if one of the etages is not valid or has already an ID.
+     */
+    @PostMapping("/etages/bulk")
+    public ResponseEntity<List<Long>> createEtages(@RequestBody List<@Valid Etage> etages) {
+        log.debug("REST request to save {} Etages", etages.size());
+        checkBulkSize(etages);
+        if (etages.stream().anyMatch(etage -> etage.getId() != null)) {
+            throw new BadRequestAlertException("A new etage cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        List<Long> ids = bulkService.createAll(etages, Etage::getId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".bulkCreated", String.valueOf(ids.size())))
+            .body(ids);
+    }
+
+    /**
+     * {@code PUT  /etages/bulk} : Updates existing etages.
+     *
+     * @param etages the etages to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ids of the updated etages in request order,
+     * or with status {@code 400 (Bad Request)} if one of the etages is not valid, has no ID or does not exist.
+     */
+    @PutMapping("/etages/bulk")
+    public ResponseEntity<List<Long>> updateEtages(@RequestBody List<@Valid Etage> etages) {
+        log.debug("REST request to update {} Etages", etages.size());
+        checkBulkSize(etages);
+        if (etages.stream().anyMatch(etage -> etage.getId() == null)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        try {
+            List<Long> ids = bulkService.updateAll(etages, Etage::getId, etageRepository);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".bulkUpdated", String.valueOf(ids.size())))
+                .body(ids);
+        } catch (EntityNotFoundException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "idnotfound");
+        }
+    }
+
+    /**
+     * {@code POST  /etages/import} : Import etages from a semicolon-separated CSV file.
+     * <p>
+     * The file has a header row naming its columns among {@code numeroetage} and {@code batiment_id}. It is imported in chunks, each one in its own transaction,
+     * so the valid rows are kept even if other rows are rejected.
+     *
+     * @param csv the CSV file, sent as the request body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report,
+     * or with status {@code 400 (Bad Request)} if the header of the file is not valid.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/etages/import", consumes = "text/csv")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<ImportReportDTO> importEtages(InputStream csv) throws IOException {
+        log.debug("REST request to import Etages");
+        try {
+            ImportReportDTO report = importService.importEtages(csv);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".imported", String.valueOf(report.getRowsImported())))
+                .body(report);
+        } catch (InvalidCsvException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidcsv");
+        }
+    }
+
     /**
      * {@code GET  /etages} : get all the etages.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of etages in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param expand the relationships to include, such as {@code batiment}, the others being referenced by their id.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of etages in body, counted according to
+     * {@code application.count.strategies.etages}.
      */
     @GetMapping("/etages")
-    public ResponseEntity<List<Etage>> getAllEtages(Pageable pageable) {
-        log.debug("REST request to get a page of Etages");
-        Page<Etage> page = etageRepository.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<EtageDTO>> getAllEtages(EtageCriteria criteria, Pageable pageable,
+            @RequestParam(value = ExpandUtil.EXPAND_PARAMETER, required = false) Set<String> expand) {
+        log.debug("REST request to get Etages by criteria: {}", criteria);
+        CountStrategy countStrategy = applicationProperties.getCount().getStrategy("etages");
+        Slice<EtageDTO> page = etageQueryService.findByCriteria(criteria, pageable, countStrategy,
+            ExpandUtil.parseExpand(expand, EtageQueryService.EXPANDABLE, ENTITY_NAME));
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page, countStrategy);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.weakETag(page)).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /etages?after=:cursor} : get a page of etages using cursor pagination.
+     *
+     * @param after the cursor of the last etage of the previous page, empty for the first page.
+     * @param size the size of the page.
+     * @param criteria the criteria which the requested entities should match.
+     * @param expand the relationships to include, such as {@code batiment}, the others being referenced by their id.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the etages in body and the cursor of the next page in the {@code Link} header.
+     */
+    @GetMapping(value = "/etages", params = CursorPaginationUtil.AFTER_PARAMETER)
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<EtageDTO>> getAllEtagesAfter(@RequestParam(CursorPaginationUtil.AFTER_PARAMETER) String after,
+                                                         @RequestParam(value = CursorPaginationUtil.SIZE_PARAMETER, defaultValue = "20") int size,
+                                                         EtageCriteria criteria,
+            @RequestParam(value = ExpandUtil.EXPAND_PARAMETER, required = false) Set<String> expand) {
+        log.debug("REST request to get a page of Etages by criteria: {}, after : {}", criteria, after);
+        Long lastId = CursorPaginationUtil.decodeLongCursor(after, ENTITY_NAME).orElse(Long.MIN_VALUE);
+        Slice<EtageDTO> slice = etageQueryService.findByCriteriaAfter(criteria, lastId, CursorPaginationUtil.pageSize(size),
+            ExpandUtil.parseExpand(expand, EtageQueryService.EXPANDABLE, ENTITY_NAME));
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, EtageDTO::getId);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.weakETag(slice)).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /batiments/:id/etages} : get a page of the etages of the "id" batiment.
+     * <p>
+     * The etages are read by their {@code batiment_id} foreign key, without loading the batiment nor its other etages.
+     *
+     * @param id the id of the batiment.
+     * @param pageable the pagination information.
+     * @param expand the relationships to include, such as {@code batiment}, the others being referenced by their id.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of etages in body,
+     * or with status {@code 404 (Not Found)} if the batiment does not exist.
+     */
+    @GetMapping("/batiments/{id}/etages")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<EtageDTO>> getBatimentEtages(@PathVariable Long id, Pageable pageable,
+            @RequestParam(value = ExpandUtil.EXPAND_PARAMETER, required = false) Set<String> expand) {
+        log.debug("REST request to get the etages of Batiment : {}", id);
+        LongFilter batimentId = new LongFilter();
+        batimentId.setEquals(id);
+        EtageCriteria criteria = new EtageCriteria();
+        criteria.setBatimentId(batimentId);
+        CountStrategy countStrategy = applicationProperties.getCount().getStrategy("etages");
+        Slice<EtageDTO> page = etageQueryService.findByCriteria(criteria, pageable, countStrategy,
+            ExpandUtil.parseExpand(expand, EtageQueryService.EXPANDABLE, ENTITY_NAME));
+        if (!page.hasContent() && page.isFirst() && !entityVersionService.findVersion(Batiment.class, id).isPresent()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page, countStrategy);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.weakETag(page)).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /etages/count} : count all the etages.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/etages/count")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Long> countEtages(EtageCriteria criteria) {
+        log.debug("REST request to count Etages by criteria: {}", criteria);
+        return ResponseEntity.ok().body(etageQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /etages/export} : export all the etages, with their batiment.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header, the body is gzip-encoded if it contains {@code gzip}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the etages streamed in body as newline-delimited JSON.
+     */
+    @GetMapping(value = "/etages/export", produces = ExportService.NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    public ResponseEntity<StreamingResponseBody> exportEtages(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("REST request to export all Etages");
+        return StreamingResponseUtil.stream(ExportService.NDJSON_VALUE, acceptEncoding, exportService::exportEtages);
     }
 
     /**
      * {@code GET  /etages/:id} : get the "id" etage.
      *
+     * <p>
+     * With an {@code If-None-Match} header, the version of the etage is checked first, from the second-level cache or with a
+     * query reading only the version, and the etage is not loaded if the client already has it. With expanded relationships,
+     * the ETag is hashed from the response instead.
+     *
      * @param id the id of the etage to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the etage, or with status {@code 404 (Not Found)}.
+     * @param expand the relationships to include, such as {@code batiment}, the others being referenced by their id.
+     * @param ifNoneMatch the {@code If-None-Match} header, the ETags of the etage known by the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, with body the etage and its ETag,
+     * or with status {@code 304 (Not Modified)} if the client has the current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/etages/{id}")
-    public ResponseEntity<Etage> getEtage(@PathVariable Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<EtageDTO> getEtage(@PathVariable Long id,
+            @RequestParam(value = ExpandUtil.EXPAND_PARAMETER, required = false) Set<String> expand,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Etage : {}", id);
-        Optional<Etage> etage = etageRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(etage);
+        Set<String> expanded = ExpandUtil.parseExpand(expand, EtageQueryService.EXPANDABLE, ENTITY_NAME);
+        if (ifNoneMatch != null && expanded.isEmpty()) {
+            Optional<String> eTag = entityVersionService.findVersion(Etage.class, id).map(EntityTagUtil::strongETag);
+            if (eTag.isPresent() && EntityTagUtil.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
+        Optional<EtageDTO> etageDTO = etageQueryService.findOne(id, expanded);
+        if (!expanded.isEmpty()) {
+            return EntityTagUtil.wrapOrNotFound(etageDTO, EntityTagUtil::weakETag);
+        }
+        return EntityTagUtil.wrapOrNotFound(etageDTO, dto -> EntityTagUtil.strongETag(dto.getVersion()));
     }
 
     /**
@@ -125,4 +413,10 @@ public class EtageResource {
         etageRepository.deleteById(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString())).build();
     }
+
+    private void checkBulkSize(List<Etage> etages) {
+        if (etages.size() > applicationProperties.getBulk().getMaxItems()) {
+            throw new BadRequestAlertException("Too many etages in a single request", ENTITY_NAME, "bulktoolarge");
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.construction.config.Constants;
 import com.construction.security.AuthoritiesConstants;
 import com.construction.service.UserService;
 import com.construction.service.dto.UserDTO;
+import com.construction.web.rest.util.CursorPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -77,6 +79,22 @@ public class UserResource {
     }
 
 
+    /**
+     * {@code GET /users?after=:cursor} : get a page of users, in login order, using cursor pagination.
+     *
+     * @param after the cursor of the last user of the previous page, empty for the first page.
+     * @param size the size of the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the users in body and the cursor of the next page in the {@code Link} header.
+     */
+    @GetMapping(value = "/users", params = CursorPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<UserDTO>> getAllUsersAfter(@RequestParam(CursorPaginationUtil.AFTER_PARAMETER) String after,
+                                                          @RequestParam(value = CursorPaginationUtil.SIZE_PARAMETER, defaultValue = "20") int size) {
+        String lastLogin = CursorPaginationUtil.decodeCursor(after, "userManagement").orElse("");
+        final Slice<UserDTO> slice = userService.getAllManagedUsersAfter(lastLogin, CursorPaginationUtil.pageSize(size));
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, UserDTO::getLogin);
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
     /**
      * Gets a list of all roles.
      * @return a string list of all roles.
@@ -0,0 +1,116 @@
+package com.construction.web.rest.util;
+
+import com.construction.web.rest.errors.BadRequestAlertException;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Utility class for handling cursor (keyset) pagination.
+ * <p>
+ * Instead of an offset, the client sends the opaque cursor of the last element it received, and the next page is
+ * read with a seek on an indexed sort key ({@code where key > :cursor order by key limit :size}). Every page costs
+ * the same whatever its depth, and no {@code count(*)} is issued.
+ * <p>
+ * The cursor of the next page is returned in a {@code Link} header with {@code rel="next"}, which is omitted on the
+ * last page.
+ */
+public final class CursorPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    public static final String SIZE_PARAMETER = "size";
+
+    public static final int MAX_SIZE = 2000;
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private CursorPaginationUtil() {
+    }
+
+    /**
+     * Encode a sort key as an opaque cursor.
+     *
+     * @param key the sort key of the last element of a page.
+     * @return the cursor.
+     */
+    public static String encodeCursor(Object key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously returned by {@link #encodeCursor(Object)}.
+     *
+     * @param cursor     the cursor sent by the client, empty for the first page.
+     * @param entityName the name of the paginated entity, used in the error.
+     * @return the sort key, or an empty {@link Optional} for the first page.
+     * @throws BadRequestAlertException if the cursor is not valid.
+     */
+    public static Optional<String> decodeCursor(String cursor, String entityName) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+        }
+    }
+
+    /**
+     * Decode a cursor on a numeric key.
+     *
+     * @param cursor     the cursor sent by the client, empty for the first page.
+     * @param entityName the name of the paginated entity, used in the error.
+     * @return the sort key, or an empty {@link Optional} for the first page.
+     * @throws BadRequestAlertException if the cursor is not valid.
+     */
+    public static Optional<Long> decodeLongCursor(String cursor, String entityName) {
+        try {
+            return decodeCursor(cursor, entityName).map(Long::valueOf);
+        } catch (NumberFormatException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+        }
+    }
+
+    /**
+     * Bound the page size requested by the client.
+     *
+     * @param size the requested page size.
+     * @return the page size to use.
+     */
+    public static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Generate the {@code Link} header pointing to the next page.
+     *
+     * @param uriBuilder   the builder of the current request URI.
+     * @param slice        the current page.
+     * @param keyExtractor the function giving the sort key of an element.
+     * @param <T>          the type of the elements.
+     * @return the http headers.
+     */
+    public static <T> HttpHeaders generateCursorHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, Function<T, ?> keyExtractor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext() && slice.hasContent()) {
+            List<T> content = slice.getContent();
+            String cursor = encodeCursor(keyExtractor.apply(content.get(content.size() - 1)));
+            String link = uriBuilder
+                .replaceQueryParam(AFTER_PARAMETER, cursor)
+                .replaceQueryParam(SIZE_PARAMETER, slice.getSize())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, MessageFormat.format(HEADER_LINK_FORMAT, link, "next"));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,125 @@
+package com.construction.web.rest.util;
+
+import com.construction.web.rest.errors.BadRequestAlertException;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Utility class for the {@code ETag}, {@code If-None-Match} and {@code If-Match} headers.
+ * <p>
+ * A single entity has a strong ETag made of its {@link javax.persistence.Version}. A page of entities has a weak
+ * ETag, hashed from its content and pagination: it changes when an entity of the page is changed, added or removed.
+ */
+public final class EntityTagUtil {
+
+    private static final String WILDCARD = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTagUtil() {
+    }
+
+    /**
+     * Get the strong ETag of an entity.
+     *
+     * @param version the version of the entity.
+     * @return the ETag.
+     */
+    public static String strongETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Get the weak ETag of a page of entities.
+     *
+     * @param slice the page.
+     * @return the ETag.
+     */
+    public static String weakETag(Slice<?> slice) {
+        StringBuilder content = new StringBuilder()
+            .append(slice.getNumber()).append('/').append(slice.getSize()).append('/').append(slice.hasNext());
+        if (slice instanceof Page) {
+            content.append('/').append(((Page<?>) slice).getTotalElements());
+        }
+        content.append(slice.getContent());
+        return WEAK_PREFIX + "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Get the weak ETag of a representation which is not versioned, such as an entity with its expanded relationships.
+     *
+     * @param representation the representation, hashed from its {@code toString()}.
+     * @return the ETag.
+     */
+    public static String weakETag(Object representation) {
+        return WEAK_PREFIX + "\"" + DigestUtils.md5DigestAsHex(String.valueOf(representation).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Check an {@code If-None-Match} header against an ETag, with the weak comparison.
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header, may be {@code null}.
+     * @param eTag        the current ETag.
+     * @return {@code true} if the client has the current version, and a {@code 304 (Not Modified)} can be sent.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = stripWeakPrefix(eTag);
+        return Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .anyMatch(tag -> WILDCARD.equals(tag) || stripWeakPrefix(tag).equals(opaqueTag));
+    }
+
+    /**
+     * Read the version expected by an {@code If-Match} header.
+     *
+     * @param ifMatch    the {@code If-Match} header, may be {@code null}.
+     * @param entityName the name of the entity, for the error.
+     * @return the expected version, or an empty {@link Optional} if any version is accepted.
+     * @throws BadRequestAlertException if the header is not a strong ETag sent by this application.
+     */
+    public static Optional<Long> parseVersion(String ifMatch, String entityName) {
+        if (ifMatch == null || WILDCARD.equals(ifMatch.trim())) {
+            return Optional.empty();
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new BadRequestAlertException("Invalid If-Match header", entityName, "invalidetag");
+        }
+        try {
+            return Optional.of(Long.valueOf(tag.substring(1, tag.length() - 1)));
+        } catch (NumberFormatException e) {
+            throw new BadRequestAlertException("Invalid If-Match header", entityName, "invalidetag");
+        }
+    }
+
+    /**
+     * Wrap an entity into a {@link ResponseEntity} with its ETag, or throw a 404 if the entity is empty.
+     *
+     * @param maybeResponse the entity to return.
+     * @param eTagGetter    the function giving the ETag of the entity.
+     * @param <X>           the type of the entity.
+     * @return the response with status {@code 200 (OK)}, the entity in body and its ETag.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(Optional<X> maybeResponse, Function<X, String> eTagGetter) {
+        return maybeResponse
+            .map(response -> ResponseEntity.ok().eTag(eTagGetter.apply(response)).body(response))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
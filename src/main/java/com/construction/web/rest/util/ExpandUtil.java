@@ -0,0 +1,51 @@
+package com.construction.web.rest.util;
+
+import com.construction.web.rest.errors.BadRequestAlertException;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Utility class for handling the {@code expand} parameter, listing the relationships to include in a response.
+ * <p>
+ * Relationships which are not expanded are only referenced by their id. A nested relationship is given by its path,
+ * such as {@code etage.batiment}, and expanding it also expands its parents.
+ */
+public final class ExpandUtil {
+
+    public static final String EXPAND_PARAMETER = "expand";
+
+    private ExpandUtil() {
+    }
+
+    /**
+     * Read the {@code expand} parameter.
+     *
+     * @param expand     the relationships requested by the client, {@code null} if none.
+     * @param expandable the relationships which can be expanded.
+     * @param entityName the name of the entity, used in the error.
+     * @return the relationships to expand, with the parents of the nested ones.
+     * @throws BadRequestAlertException if a relationship cannot be expanded.
+     */
+    public static Set<String> parseExpand(Set<String> expand, Set<String> expandable, String entityName) {
+        if (expand == null || expand.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> paths = new HashSet<>();
+        for (String path : expand) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!expandable.contains(trimmed)) {
+                throw new BadRequestAlertException("Cannot expand " + trimmed, entityName, "invalidexpand");
+            }
+            for (int dot = trimmed.indexOf('.'); dot > 0; dot = trimmed.indexOf('.', dot + 1)) {
+                paths.add(trimmed.substring(0, dot));
+            }
+            paths.add(trimmed);
+        }
+        return paths;
+    }
+}
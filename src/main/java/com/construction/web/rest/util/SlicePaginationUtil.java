@@ -0,0 +1,71 @@
+package com.construction.web.rest.util;
+
+import com.construction.config.ApplicationProperties.CountStrategy;
+
+import io.github.jhipster.web.util.PaginationUtil;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for handling pages which may not have been counted.
+ * <p>
+ * A {@link Page} gets the usual {@code X-Total-Count} and {@code Link} headers. A {@link Slice}, read without
+ * counting, only gets the {@code next}, {@code prev} and {@code first} links. The count strategy which was used is
+ * sent in the {@code X-Count-Strategy} header.
+ */
+public final class SlicePaginationUtil {
+
+    public static final String COUNT_STRATEGY_HEADER = "X-Count-Strategy";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private SlicePaginationUtil() {
+    }
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Slice} object.
+     *
+     * @param uriBuilder    the builder of the current request URI.
+     * @param slice         the current page, a {@link Page} if it was counted.
+     * @param countStrategy the count strategy used to read the page.
+     * @param <T>           the type of the elements.
+     * @return the http headers.
+     */
+    public static <T> HttpHeaders generatePaginationHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, CountStrategy countStrategy) {
+        HttpHeaders headers;
+        if (slice instanceof Page) {
+            headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, (Page<T>) slice);
+        } else {
+            headers = new HttpHeaders();
+            int pageNumber = slice.getNumber();
+            int pageSize = slice.getSize();
+            List<String> links = new ArrayList<>();
+            if (slice.hasNext()) {
+                links.add(prepareLink(uriBuilder, pageNumber + 1, pageSize, "next"));
+            }
+            if (slice.hasPrevious()) {
+                links.add(prepareLink(uriBuilder, pageNumber - 1, pageSize, "prev"));
+            }
+            links.add(prepareLink(uriBuilder, 0, pageSize, "first"));
+            headers.add(HttpHeaders.LINK, String.join(",", links));
+        }
+        headers.add(COUNT_STRATEGY_HEADER, countStrategy.name().toLowerCase());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        String uri = uriBuilder
+            .replaceQueryParam("page", Integer.toString(pageNumber))
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return MessageFormat.format(HEADER_LINK_FORMAT, uri, relType);
+    }
+}
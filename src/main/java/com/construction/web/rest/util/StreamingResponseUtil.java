@@ -0,0 +1,70 @@
+package com.construction.web.rest.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Utility class for streamed responses, written after the controller method has returned.
+ * <p>
+ * The body is gzip-encoded when the client accepts it, which usually divides the size of a JSON export by ten.
+ */
+public final class StreamingResponseUtil {
+
+    private static final String GZIP = "gzip";
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private StreamingResponseUtil() {
+    }
+
+    /**
+     * Writer of a streamed response body.
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Create a streamed response.
+     *
+     * @param contentType    the content type of the body.
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request, may be {@code null}.
+     * @param writer         the writer of the body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the streamed body.
+     */
+    public static ResponseEntity<StreamingResponseBody> stream(String contentType, String acceptEncoding, BodyWriter writer) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(acceptEncoding)) {
+            return ResponseEntity.ok().headers(headers).body(writer::writeTo);
+        }
+        headers.add(HttpHeaders.CONTENT_ENCODING, GZIP);
+        return ResponseEntity.ok().headers(headers).body(out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            writer.writeTo(gzip);
+            gzip.finish();
+        });
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
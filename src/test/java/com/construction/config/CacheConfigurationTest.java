@@ -0,0 +1,95 @@
+package com.construction.config;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
+import com.hazelcast.config.NearCacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.env.Environment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the map configuration of the regions of the {@link CacheConfiguration} class.
+ */
+public class CacheConfigurationTest {
+
+    private CacheConfiguration cacheConfiguration;
+
+    private MapConfig baseMapConfig;
+
+    @BeforeEach
+    public void setup() {
+        cacheConfiguration = new CacheConfiguration(mock(Environment.class), new ServerProperties(), mock(DiscoveryClient.class));
+        baseMapConfig = new MapConfig("com.construction.domain.*")
+            .setBackupCount(1)
+            .setEvictionPolicy(EvictionPolicy.LRU)
+            .setTimeToLiveSeconds(3600)
+            .setMaxSizeConfig(new MaxSizeConfig(10, MaxSizeConfig.MaxSizePolicy.USED_HEAP_PERCENTAGE))
+            .setNearCacheConfig(new NearCacheConfig().setMaxIdleSeconds(60));
+    }
+
+    @Test
+    public void shouldOverrideTheSetProperties() {
+        ApplicationProperties.Region region = new ApplicationProperties.Region();
+        region.setMaxSize(0);
+        region.setEvictionPolicy(EvictionPolicy.NONE);
+        region.setTimeToLiveSeconds(0);
+        region.setMaxIdleSeconds(600);
+        region.setBackupCount(0);
+        region.setReadBackupData(true);
+        region.setInMemoryFormat(InMemoryFormat.OBJECT);
+
+        MapConfig mapConfig = cacheConfiguration.initializeRegionMapConfig(baseMapConfig, "batimentSummaries", region);
+
+        assertThat(mapConfig.getName()).isEqualTo("batimentSummaries");
+        assertThat(mapConfig.getMaxSizeConfig().getSize()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(mapConfig.getMaxSizeConfig().getMaxSizePolicy()).isEqualTo(MaxSizeConfig.MaxSizePolicy.USED_HEAP_PERCENTAGE);
+        assertThat(mapConfig.getEvictionPolicy()).isEqualTo(EvictionPolicy.NONE);
+        assertThat(mapConfig.getTimeToLiveSeconds()).isZero();
+        assertThat(mapConfig.getMaxIdleSeconds()).isEqualTo(600);
+        assertThat(mapConfig.getBackupCount()).isZero();
+        assertThat(mapConfig.isReadBackupData()).isTrue();
+        assertThat(mapConfig.getInMemoryFormat()).isEqualTo(InMemoryFormat.OBJECT);
+    }
+
+    @Test
+    public void shouldKeepTheUnsetPropertiesOfTheBaseConfiguration() {
+        ApplicationProperties.Region region = new ApplicationProperties.Region();
+        region.setMaxSize(10000);
+        region.setMaxSizePolicy(MaxSizeConfig.MaxSizePolicy.PER_NODE);
+
+        MapConfig mapConfig = cacheConfiguration.initializeRegionMapConfig(baseMapConfig, "com.construction.domain.Batiment", region);
+
+        assertThat(mapConfig.getMaxSizeConfig().getSize()).isEqualTo(10000);
+        assertThat(mapConfig.getMaxSizeConfig().getMaxSizePolicy()).isEqualTo(MaxSizeConfig.MaxSizePolicy.PER_NODE);
+        assertThat(mapConfig.getEvictionPolicy()).isEqualTo(EvictionPolicy.LRU);
+        assertThat(mapConfig.getTimeToLiveSeconds()).isEqualTo(3600);
+        assertThat(mapConfig.getBackupCount()).isEqualTo(1);
+        assertThat(mapConfig.getNearCacheConfig().getMaxIdleSeconds()).isEqualTo(60);
+    }
+
+    @Test
+    public void shouldNotChangeTheBaseConfiguration() {
+        ApplicationProperties.Region region = new ApplicationProperties.Region();
+        region.setMaxSize(0);
+        region.setMaxSizePolicy(MaxSizeConfig.MaxSizePolicy.PER_NODE);
+        region.setEvictionPolicy(EvictionPolicy.NONE);
+        region.setTimeToLiveSeconds(0);
+
+        MapConfig mapConfig = cacheConfiguration.initializeRegionMapConfig(baseMapConfig, "batimentSummaries", region);
+
+        assertThat(mapConfig).isNotSameAs(baseMapConfig);
+        assertThat(mapConfig.getMaxSizeConfig()).isNotSameAs(baseMapConfig.getMaxSizeConfig());
+        assertThat(baseMapConfig.getName()).isEqualTo("com.construction.domain.*");
+        assertThat(baseMapConfig.getMaxSizeConfig().getSize()).isEqualTo(10);
+        assertThat(baseMapConfig.getMaxSizeConfig().getMaxSizePolicy()).isEqualTo(MaxSizeConfig.MaxSizePolicy.USED_HEAP_PERCENTAGE);
+        assertThat(baseMapConfig.getEvictionPolicy()).isEqualTo(EvictionPolicy.LRU);
+        assertThat(baseMapConfig.getTimeToLiveSeconds()).isEqualTo(3600);
+    }
+}
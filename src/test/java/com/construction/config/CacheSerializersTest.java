@@ -0,0 +1,193 @@
+package com.construction.config;
+
+import com.construction.domain.Authority;
+import com.construction.domain.User;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link CacheSerializers} class.
+ * <p>
+ * {@link #benchmark()} logs the size and the serialization and deserialization times of each cached type, with Java
+ * serialization and with the serializers. It only runs with the {@code benchmark} Maven profile:
+ * {@code ./mvnw test -Pdev,benchmark}.
+ */
+public class CacheSerializersTest {
+
+    private static final int WARM_UP_ITERATIONS = 5000;
+
+    private static final int ITERATIONS = 20000;
+
+    private final Logger log = LoggerFactory.getLogger(CacheSerializersTest.class);
+
+    private InternalSerializationService javaSerialization;
+
+    private InternalSerializationService compactSerialization;
+
+    @BeforeEach
+    public void setup() {
+        javaSerialization = new DefaultSerializationServiceBuilder().build();
+        SerializationConfig serializationConfig = new SerializationConfig();
+        CacheSerializers.register(serializationConfig);
+        compactSerialization = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+    }
+
+    @AfterEach
+    public void teardown() {
+        javaSerialization.dispose();
+        compactSerialization.dispose();
+    }
+
+    @Test
+    public void shouldRoundTripEntityEntries() throws Exception {
+        Object item = readWriteItem(entityEntry(), 3L, 123456789L);
+
+        Object copy = roundTrip(item);
+
+        assertThat(copy.getClass()).isEqualTo(CacheSerializers.ReadWriteItemSerializer.ITEM_CLASS);
+        assertThat(field(copy, "version")).isEqualTo(3L);
+        assertThat(field(copy, "timestamp")).isEqualTo(123456789L);
+        CacheEntry entry = (CacheEntry) field(copy, "value");
+        assertThat(entry.getDisassembledState()).containsExactly(3L, "Batiment A", Instant.ofEpochSecond(1600000000L, 123), 12L, null);
+        assertThat(entry.getSubclass()).isEqualTo("com.construction.domain.Batiment");
+        assertThat(entry.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    public void shouldRoundTripCollectionEntries() throws Exception {
+        CollectionCacheEntry copy = roundTrip(collectionEntry());
+
+        assertThat(copy.getState()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void shouldRoundTripUsers() {
+        User copy = roundTrip(user());
+
+        assertThat(copy.getId()).isEqualTo("user-1");
+        assertThat(copy.getLogin()).isEqualTo("johndoe");
+        assertThat(copy.getFirstName()).isEqualTo("John");
+        assertThat(copy.getLastName()).isNull();
+        assertThat(copy.getEmail()).isEqualTo("johndoe@localhost");
+        assertThat(copy.getActivated()).isTrue();
+        assertThat(copy.getLangKey()).isEqualTo("fr");
+        assertThat(copy.getCreatedBy()).isEqualTo("system");
+        assertThat(copy.getCreatedDate()).isEqualTo(Instant.ofEpochSecond(1600000000L));
+        assertThat(copy.getLastModifiedDate()).isNull();
+        assertThat(copy.getAuthorities()).extracting(Authority::getName).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    public void shouldBeSmallerThanJavaSerialization() throws Exception {
+        for (Object value : Arrays.asList(readWriteItem(entityEntry(), 3L, 123456789L), collectionEntry(), user())) {
+            assertThat(compactSerialization.toData(value).totalSize())
+                .isLessThan(javaSerialization.toData(value).totalSize() / 2);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmark() throws Exception {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("entity", readWriteItem(entityEntry(), 3L, 123456789L));
+        values.put("collection", collectionEntry());
+        values.put("user", user());
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            log.info("{} java: {}", value.getKey(), measure(javaSerialization, value.getValue()));
+            log.info("{} compact: {}", value.getKey(), measure(compactSerialization, value.getValue()));
+        }
+    }
+
+    private String measure(InternalSerializationService serializationService, Object value) {
+        Data data = serializationService.toData(value);
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            serializationService.toObject(serializationService.toData(value));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializationService.toData(value);
+        }
+        long serialization = (System.nanoTime() - start) / ITERATIONS;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializationService.toObject(data);
+        }
+        long deserialization = (System.nanoTime() - start) / ITERATIONS;
+        return data.totalSize() + " bytes, " + serialization + " ns to serialize, " + deserialization + " ns to deserialize";
+    }
+
+    private <T> T roundTrip(T value) {
+        return compactSerialization.toObject(compactSerialization.toData(value));
+    }
+
+    private static StandardCacheEntryImpl entityEntry() throws Exception {
+        Serializable[] state = {3L, "Batiment A", Instant.ofEpochSecond(1600000000L, 123), 12L, null};
+        Constructor<StandardCacheEntryImpl> constructor =
+            StandardCacheEntryImpl.class.getDeclaredConstructor(Serializable[].class, String.class, Object.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(state, "com.construction.domain.Batiment", 3L);
+    }
+
+    private static CollectionCacheEntry collectionEntry() throws Exception {
+        Constructor<CollectionCacheEntry> constructor = CollectionCacheEntry.class.getDeclaredConstructor(Serializable.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance((Object) new Serializable[]{1L, 2L, 3L});
+    }
+
+    private static Object readWriteItem(Object value, Object version, long timestamp) throws Exception {
+        Constructor<?> constructor = CacheSerializers.ReadWriteItemSerializer.ITEM_CLASS
+            .getDeclaredConstructor(Object.class, Object.class, long.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(value, version, timestamp);
+    }
+
+    private static Object field(Object object, String name) throws Exception {
+        Field field = object.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(object);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId("user-1");
+        user.setLogin("johndoe");
+        user.setFirstName("John");
+        user.setEmail("johndoe@localhost");
+        user.setActivated(true);
+        user.setLangKey("fr");
+        user.setCreatedBy("system");
+        user.setCreatedDate(Instant.ofEpochSecond(1600000000L));
+        user.setLastModifiedDate(null);
+        user.setAuthorities(new HashSet<>(Arrays.asList(authority("ROLE_USER"), authority("ROLE_ADMIN"))));
+        return user;
+    }
+
+    private static Authority authority(String name) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        return authority;
+    }
+}
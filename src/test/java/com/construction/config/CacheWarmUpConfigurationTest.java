@@ -0,0 +1,56 @@
+package com.construction.config;
+
+import com.construction.service.CacheWarmUpService;
+
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.SimpleStatusAggregator;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link CacheWarmUpConfiguration.WarmUpHealthCheckHandler} class.
+ */
+public class CacheWarmUpConfigurationTest {
+
+    private CacheWarmUpService cacheWarmUpService;
+
+    private Health health;
+
+    private CacheWarmUpConfiguration.WarmUpHealthCheckHandler healthCheckHandler;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        cacheWarmUpService = mock(CacheWarmUpService.class);
+        health = Health.up().build();
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        when(applicationContext.getBeansOfType(HealthIndicator.class))
+            .thenReturn(Collections.singletonMap("test", () -> health));
+        healthCheckHandler = new CacheWarmUpConfiguration.WarmUpHealthCheckHandler(new SimpleStatusAggregator(), cacheWarmUpService);
+        healthCheckHandler.setApplicationContext(applicationContext);
+        healthCheckHandler.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldBeStartingDuringTheWarmUp() {
+        when(cacheWarmUpService.isComplete()).thenReturn(false);
+
+        assertThat(healthCheckHandler.getStatus(InstanceStatus.UNKNOWN)).isEqualTo(InstanceStatus.STARTING);
+    }
+
+    @Test
+    public void shouldReportTheHealthOnceTheWarmUpIsComplete() {
+        when(cacheWarmUpService.isComplete()).thenReturn(true);
+
+        assertThat(healthCheckHandler.getStatus(InstanceStatus.UNKNOWN)).isEqualTo(InstanceStatus.UP);
+        health = Health.down().build();
+        assertThat(healthCheckHandler.getStatus(InstanceStatus.UNKNOWN)).isEqualTo(InstanceStatus.DOWN);
+    }
+}
@@ -0,0 +1,76 @@
+package com.construction.config;
+
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import com.hazelcast.spi.discovery.DiscoveryStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link DiscoveryClientDiscoveryStrategy} class.
+ */
+public class DiscoveryClientDiscoveryStrategyTest {
+
+    private static final String SERVICE_ID = "constructionms";
+
+    private DiscoveryClient discoveryClient;
+
+    private DiscoveryStrategy discoveryStrategy;
+
+    @BeforeEach
+    public void setup() {
+        discoveryClient = mock(DiscoveryClient.class);
+        discoveryStrategy = new DiscoveryClientDiscoveryStrategy.Factory(discoveryClient, SERVICE_ID,
+            instance -> new InetSocketAddress(instance.getHost(), instance.getPort() + 5701))
+            .newDiscoveryStrategy(null, Logger.getLogger(DiscoveryClientDiscoveryStrategy.class), Collections.emptyMap());
+    }
+
+    @Test
+    public void shouldDiscoverTheRegisteredInstances() throws Exception {
+        when(discoveryClient.getInstances(SERVICE_ID)).thenReturn(Arrays.asList(
+            new DefaultServiceInstance("constructionms:1", SERVICE_ID, "127.0.0.1", 8081, false),
+            new DefaultServiceInstance("constructionms:2", SERVICE_ID, "127.0.0.1", 8082, false)));
+
+        assertThat(discoverAddresses()).containsExactly(new Address("127.0.0.1", 13782), new Address("127.0.0.1", 13783));
+    }
+
+    @Test
+    public void shouldReadTheRegistryAtEachDiscovery() throws Exception {
+        when(discoveryClient.getInstances(SERVICE_ID))
+            .thenReturn(Collections.singletonList(new DefaultServiceInstance("constructionms:1", SERVICE_ID, "127.0.0.1", 8081, false)))
+            .thenReturn(Arrays.asList(
+                new DefaultServiceInstance("constructionms:1", SERVICE_ID, "127.0.0.1", 8081, false),
+                new DefaultServiceInstance("constructionms:2", SERVICE_ID, "127.0.0.1", 8082, false)));
+
+        assertThat(discoverAddresses()).hasSize(1);
+        assertThat(discoverAddresses()).hasSize(2);
+    }
+
+    @Test
+    public void shouldSkipTheUnresolvedInstances() throws Exception {
+        when(discoveryClient.getInstances(SERVICE_ID)).thenReturn(Arrays.asList(
+            new DefaultServiceInstance("constructionms:1", SERVICE_ID, "unknown.invalid", 8081, false),
+            new DefaultServiceInstance("constructionms:2", SERVICE_ID, "127.0.0.1", 8082, false)));
+
+        assertThat(discoverAddresses()).containsExactly(new Address("127.0.0.1", 13783));
+    }
+
+    private List<Address> discoverAddresses() {
+        return StreamSupport.stream(discoveryStrategy.discoverNodes().spliterator(), false)
+            .map(DiscoveryNode::getPrivateAddress)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,80 @@
+package com.construction.config;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.monitor.LocalMapStats;
+import com.hazelcast.monitor.NearCacheStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link HazelcastMapMetrics} class.
+ */
+public class HazelcastMapMetricsTest {
+
+    private IMap<Object, Object> map;
+
+    private LocalMapStats localMapStats;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        map = mock(IMap.class);
+        localMapStats = mock(LocalMapStats.class);
+        when(map.getName()).thenReturn("usersByLogin");
+        when(map.getLocalMapStats()).thenReturn(localMapStats);
+        when(map.get("known")).thenReturn("user");
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void shouldCountTheHitsAndTheMisses() {
+        CountingHazelcastCacheManager.CountingHazelcastCache cache = new CountingHazelcastCacheManager.CountingHazelcastCache(map);
+
+        cache.get("known");
+        cache.get("known", String.class);
+        cache.get("unknown");
+        assertThat(cache.get("unknown", () -> "loaded")).isEqualTo("loaded");
+
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldPublishTheHitRatioOfTheMapBehindItsNearCache() {
+        NearCacheStats nearCacheStats = mock(NearCacheStats.class);
+        when(localMapStats.getNearCacheStats()).thenReturn(nearCacheStats);
+        CountingHazelcastCacheManager.CountingHazelcastCache cache = new CountingHazelcastCacheManager.CountingHazelcastCache(map);
+        new HazelcastMapMetrics(cache, Collections.emptyList()).bindTo(registry);
+
+        // 6 reads: 3 found in the near cache, then 1 found in the map and 2 missing
+        for (int i = 0; i < 4; i++) {
+            cache.get("known");
+        }
+        cache.get("unknown");
+        cache.get("unknown");
+        when(nearCacheStats.getHits()).thenReturn(3L);
+        when(nearCacheStats.getMisses()).thenReturn(3L);
+
+        assertThat(registry.get("cache.near.hit.ratio").gauge().value()).isCloseTo(0.5, within(0.001));
+        assertThat(registry.get("cache.hit.ratio").gauge().value()).isCloseTo(1.0 / 3, within(0.001));
+    }
+
+    @Test
+    public void shouldNotPublishTheHitRatioOfMapsNotReadThroughTheCache() {
+        CountingHazelcastCacheManager.CountingHazelcastCache cache = new CountingHazelcastCacheManager.CountingHazelcastCache(map);
+        new HazelcastMapMetrics(cache, Collections.emptyList()).bindTo(registry);
+
+        assertThat(registry.get("cache.hit.ratio").gauge().value()).isNaN();
+        assertThat(registry.find("cache.near.hit.ratio").gauge()).isNull();
+        assertThat(registry.find("cache.gets").tag("result", "miss").functionCounter()).isNull();
+    }
+}
@@ -0,0 +1,72 @@
+package com.construction.config;
+
+import com.construction.ConstructionMsApp;
+import com.construction.domain.Etage;
+import com.construction.domain.Etage_;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the query meters of the {@link QueryMetricsStatistics} class.
+ */
+@SpringBootTest(classes = {ConstructionMsApp.class, TestSecurityConfiguration.class})
+@Transactional
+public class QueryMetricsStatisticsIT {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void teardown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void shouldRegisterTheMetersOncePerCriteriaQuery() {
+        findEtage(1L);
+        int meters = meterRegistry.find("hibernate.query.execution").functionTimers().size();
+
+        findEtage(2L);
+        findEtage(3L);
+
+        // The ids are bound, not inlined in the query
+        assertThat(meterRegistry.find("hibernate.query.execution").functionTimers()).hasSize(meters);
+    }
+
+    private void findEtage(Long id) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Etage> query = cb.createQuery(Etage.class);
+        Root<Etage> root = query.from(Etage.class);
+        em.createQuery(query.where(cb.equal(root.get(Etage_.id), id))).getResultList();
+    }
+}
@@ -0,0 +1,54 @@
+package com.construction.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link QueryMetricsStatistics} class.
+ */
+public class QueryMetricsStatisticsTest {
+
+    @AfterEach
+    public void teardown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void shouldCountTheBoundParameters() {
+        assertThat(QueryMetricsStatistics.countParameters("select e from Etage e where e.id > :lastId order by e.id asc")).isEqualTo(1);
+        assertThat(QueryMetricsStatistics.countParameters("select e from Etage e where e.batiment.id = ?1 and e.id in (:ids_0, :ids_1)")).isEqualTo(3);
+        assertThat(QueryMetricsStatistics.countParameters("select count(b) from Batiment b")).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotCountTheLiterals() {
+        assertThat(QueryMetricsStatistics.countParameters("select b from Batiment b where b.name = 'A:B?' and b.id = :id")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReadTheEndpointOfTheRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/batiments/12");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/batiments/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertThat(QueryMetricsStatistics.currentEndpoint()).isEqualTo("GET /api/batiments/{id}");
+    }
+
+    @Test
+    public void shouldReadTheUriWithoutHandler() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("POST", "/api/etages")));
+
+        assertThat(QueryMetricsStatistics.currentEndpoint()).isEqualTo("POST /api/etages");
+    }
+
+    @Test
+    public void shouldHaveNoEndpointOutsideOfARequest() {
+        assertThat(QueryMetricsStatistics.currentEndpoint()).isEqualTo("no request");
+    }
+}
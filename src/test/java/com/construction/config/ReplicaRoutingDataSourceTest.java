@@ -0,0 +1,108 @@
+package com.construction.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link ReplicaRoutingDataSource} class.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT lag FROM heartbeat";
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    private Connection replicaConnection;
+
+    private ResultSet lag;
+
+    private ApplicationProperties.Replica properties;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        replicaConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        lag = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(LAG_QUERY)).thenReturn(lag);
+        when(lag.next()).thenReturn(true);
+
+        properties = new ApplicationProperties.Replica();
+        properties.setMaxLagSeconds(5);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, properties);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void teardown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void shouldRouteReadOnlyTransactionsToTheReplica() throws SQLException {
+        routingDataSource.checkReplica();
+        assertThat(routingDataSource.isReplicaAvailable()).isTrue();
+        assertThat(routingDataSource.currentRoute()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.currentRoute()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+        routingDataSource.getConnection();
+        verify(replica, times(2)).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    public void shouldRouteToThePrimaryUntilTheReplicaIsChecked() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.currentRoute()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+    }
+
+    @Test
+    public void shouldRouteToThePrimaryWhenTheReplicaIsDown() throws SQLException {
+        routingDataSource.checkReplica();
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        routingDataSource.checkReplica();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.isReplicaAvailable()).isFalse();
+        assertThat(routingDataSource.currentRoute()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+    }
+
+    @Test
+    public void shouldRouteToThePrimaryWhenTheReplicaIsBehind() throws SQLException {
+        properties.setLagQuery(LAG_QUERY);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        when(lag.getLong(1)).thenReturn(2L);
+        routingDataSource.checkReplica();
+        assertThat(routingDataSource.currentRoute()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+
+        when(lag.getLong(1)).thenReturn(10L);
+        routingDataSource.checkReplica();
+        assertThat(routingDataSource.currentRoute()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+
+        // A stopped replication has no lag
+        when(lag.getLong(1)).thenReturn(0L);
+        when(lag.wasNull()).thenReturn(true);
+        routingDataSource.checkReplica();
+        assertThat(routingDataSource.currentRoute()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+    }
+}
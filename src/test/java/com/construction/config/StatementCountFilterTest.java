@@ -0,0 +1,103 @@
+package com.construction.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link StatementCountFilter} class.
+ */
+public class StatementCountFilterTest {
+
+    private static final String SELECT_ETAGE = "select etage0_.id as id1_2_0_ from etage etage0_ where etage0_.id=?";
+
+    private static final String SELECT_APPARTEMENTS = "select appartemen0_.id as id1_0_ from appartement appartemen0_";
+
+    private final StatementCountInspector inspector = new StatementCountInspector();
+
+    private MeterRegistry registry;
+
+    private ApplicationProperties.StatementBudget statementBudget;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        statementBudget = new ApplicationProperties.StatementBudget();
+        statementBudget.setDebugHeader(true);
+        request = new MockHttpServletRequest("GET", "/api/appartements");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/appartements");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void shouldCountTheStatementsOfTheRequest() throws Exception {
+        filter(SELECT_APPARTEMENTS, SELECT_ETAGE, SELECT_ETAGE);
+
+        assertThat(response.getHeader(StatementCountFilter.STATEMENT_COUNT_HEADER)).isEqualTo("3");
+        assertThat(response.getHeader(StatementCountFilter.REPEATED_STATEMENT_COUNT_HEADER)).isEqualTo("0");
+        assertThat(registry.get("http.server.requests.statements").tag("method", "GET").tag("uri", "/api/appartements")
+            .summary().totalAmount()).isEqualTo(3);
+        assertThat(registry.find("http.server.requests.repeated.statements").counter()).isNull();
+    }
+
+    @Test
+    public void shouldReportTheRepeatedStatements() throws Exception {
+        filter(SELECT_APPARTEMENTS, SELECT_ETAGE, SELECT_ETAGE, SELECT_ETAGE, SELECT_ETAGE);
+
+        assertThat(response.getHeader(StatementCountFilter.STATEMENT_COUNT_HEADER)).isEqualTo("5");
+        assertThat(response.getHeader(StatementCountFilter.REPEATED_STATEMENT_COUNT_HEADER)).isEqualTo("1");
+        assertThat(registry.get("http.server.requests.repeated.statements").tag("uri", "/api/appartements")
+            .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotSendTheHeadersByDefault() throws Exception {
+        statementBudget.setDebugHeader(false);
+
+        filter(SELECT_APPARTEMENTS);
+
+        assertThat(response.getHeader(StatementCountFilter.STATEMENT_COUNT_HEADER)).isNull();
+        assertThat(registry.get("http.server.requests.statements").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCountOutsideOfARequest() throws Exception {
+        filter(SELECT_APPARTEMENTS);
+        inspector.inspect(SELECT_ETAGE);
+
+        assertThat(registry.get("http.server.requests.statements").summary().totalAmount()).isEqualTo(1);
+    }
+
+    /**
+     * Runs the statements while handling the request, then writes the body.
+     */
+    private void filter(String... statements) throws Exception {
+        new StatementCountFilter(registry, statementBudget).doFilter(request, response, new MockFilterChain(new HttpServlet() {
+
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                for (String sql : statements) {
+                    inspector.inspect(sql);
+                }
+                response.getWriter().write("[]");
+                response.flushBuffer();
+            }
+        }));
+    }
+}
@@ -0,0 +1,132 @@
+package com.construction.service;
+
+import com.construction.config.ApplicationProperties;
+import com.construction.domain.Batiment;
+import com.construction.domain.Etage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link CacheWarmUpService} class.
+ */
+public class CacheWarmUpServiceTest {
+
+    private EntityManager entityManager;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TypedQuery<Long> idQuery;
+
+    private TypedQuery<Batiment> batimentQuery;
+
+    private CacheWarmUpService cacheWarmUpService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        entityManager = mock(EntityManager.class);
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        cache = mock(Cache.class);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class, RETURNS_DEEP_STUBS);
+        when(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).thenReturn(true);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        javax.persistence.Cache jpaCache = mock(javax.persistence.Cache.class);
+        when(jpaCache.unwrap(Cache.class)).thenReturn(cache);
+        when(entityManagerFactory.getCache()).thenReturn(jpaCache);
+
+        idQuery = mock(TypedQuery.class, RETURNS_SELF);
+        batimentQuery = mock(TypedQuery.class, RETURNS_SELF);
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(idQuery);
+        when(entityManager.createQuery(anyString(), eq(Batiment.class))).thenReturn(batimentQuery);
+        when(entityManager.createQuery(anyString(), eq(Etage.class))).thenReturn(mock(TypedQuery.class, RETURNS_SELF));
+
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getWarmUp().setChunkSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheWarmUpService = new CacheWarmUpService(entityManager, entityManagerFactory, applicationProperties, meterRegistry,
+            Runnable::run, mock(TaskScheduler.class), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void shouldOnlyLoadTheEntitiesMissingFromTheCache() {
+        // 3 batiments, the second one already cached, and no etage
+        when(idQuery.getResultList())
+            .thenReturn(Arrays.asList(1L, 2L))
+            .thenReturn(Collections.singletonList(3L))
+            .thenReturn(Collections.emptyList());
+        when(cache.containsEntity(Batiment.class, 2L)).thenReturn(true);
+
+        cacheWarmUpService.warmUp();
+
+        verify(batimentQuery).setParameter("ids", Collections.singletonList(1L));
+        verify(batimentQuery).setParameter("ids", Collections.singletonList(3L));
+        verify(batimentQuery, times(2)).setHint(QueryHints.HINT_CACHE_MODE, CacheMode.NORMAL);
+        verify(batimentQuery, never()).setHint(QueryHints.HINT_CACHE_MODE, CacheMode.REFRESH);
+        assertThat(meterRegistry.get("cache.warmup.entries").tag("region", Batiment.class.getName()).gauge().value()).isEqualTo(2);
+        assertThat(cacheWarmUpService.isComplete()).isTrue();
+    }
+
+    @Test
+    public void shouldNotReadAChunkAlreadyCached() {
+        when(idQuery.getResultList())
+            .thenReturn(Arrays.asList(1L, 2L))
+            .thenReturn(Collections.emptyList());
+        when(cache.containsEntity(eq(Batiment.class), any())).thenReturn(true);
+
+        cacheWarmUpService.warmUp();
+
+        verify(batimentQuery, never()).getResultList();
+        assertThat(meterRegistry.get("cache.warmup.entries").tag("region", Batiment.class.getName()).gauge().value()).isZero();
+    }
+
+    @Test
+    public void shouldStopAtTheMaximumNumberOfEntries() {
+        applicationProperties.getCache().getWarmUp().setMaxEntries(3);
+        when(idQuery.getResultList())
+            .thenReturn(Arrays.asList(1L, 2L))
+            .thenReturn(Collections.singletonList(3L))
+            .thenReturn(Collections.emptyList());
+
+        cacheWarmUpService.warmUp();
+
+        // 2 batiments, then the last one, without reading further; then no etage
+        verify(idQuery, times(2)).setMaxResults(2);
+        verify(idQuery).setMaxResults(1);
+        verify(idQuery, times(3)).getResultList();
+    }
+
+    @Test
+    public void shouldBeCompleteWhenDisabled() {
+        applicationProperties.getCache().getWarmUp().setEnabled(false);
+
+        cacheWarmUpService.warmUp();
+
+        verifyNoInteractions(entityManager);
+        assertThat(cacheWarmUpService.isComplete()).isTrue();
+    }
+}
@@ -0,0 +1,91 @@
+package com.construction.service;
+
+import com.construction.config.ReplicaRoutingDataSource;
+import com.construction.domain.Batiment;
+
+import org.hibernate.jpa.QueryHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the query cache of the {@link SliceQueryService} class.
+ */
+public class SliceQueryServiceTest {
+
+    private static final String REGION = "query.test";
+
+    private SliceQueryService<Batiment> queryService;
+
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    private PlatformTransactionManager transactionManager;
+
+    private TypedQuery<Batiment> query;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        queryService = new SliceQueryService<Batiment>(mock(EntityManager.class), Batiment.class) {
+        };
+        replicaRoutingDataSource = mock(ReplicaRoutingDataSource.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        queryService.setTransactionManager(transactionManager);
+        query = mock(TypedQuery.class, RETURNS_SELF);
+    }
+
+    @Test
+    public void shouldNotCacheQueriesWithoutRegion() {
+        queryService.setReplicaRoutingDataSource(replicaRoutingDataSource);
+        when(replicaRoutingDataSource.currentRoute()).thenReturn(ReplicaRoutingDataSource.Route.REPLICA);
+
+        queryService.getResultList(() -> query, null);
+
+        verify(query, never()).setHint(anyString(), any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void shouldCacheQueriesWithoutReplica() {
+        queryService.getResultList(() -> query, REGION);
+
+        verify(query).setHint(QueryHints.HINT_CACHEABLE, true);
+        verify(query).setHint(QueryHints.HINT_CACHE_REGION, REGION);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void shouldCacheQueriesSentToThePrimaryInTheirTransaction() {
+        queryService.setReplicaRoutingDataSource(replicaRoutingDataSource);
+        when(replicaRoutingDataSource.currentRoute()).thenReturn(ReplicaRoutingDataSource.Route.PRIMARY);
+
+        queryService.getResultList(() -> query, REGION);
+
+        verify(query).setHint(QueryHints.HINT_CACHEABLE, true);
+        verify(query).getResultList();
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void shouldRunTheCachedQueriesOfTheReplicaOnThePrimary() {
+        queryService.setReplicaRoutingDataSource(replicaRoutingDataSource);
+        when(replicaRoutingDataSource.currentRoute()).thenReturn(ReplicaRoutingDataSource.Route.REPLICA);
+
+        queryService.getResultList(() -> query, REGION);
+
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()
+            && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(query).setHint(QueryHints.HINT_CACHEABLE, true);
+        verify(query).setHint(QueryHints.HINT_CACHE_REGION, REGION);
+        verify(query).getResultList();
+        verify(transactionManager).commit(any());
+    }
+}
@@ -3,22 +3,42 @@ package com.construction.web.rest;
 import com.construction.ConstructionMsApp;
 import com.construction.config.TestSecurityConfiguration;
 import com.construction.domain.Appartement;
+import com.construction.domain.Batiment;
+import com.construction.domain.Etage;
 import com.construction.repository.AppartementRepository;
+import com.construction.service.ExportService;
+import com.construction.web.rest.util.CursorPaginationUtil;
 
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
 import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -96,6 +116,89 @@ public class AppartementResourceIT {
         assertThat(testAppartement.getNumeroappart()).isEqualTo(DEFAULT_NUMEROAPPART);
     }
 
+    @Test
+    @Transactional
+    public void createAppartementsInBulk() throws Exception {
+        int databaseSizeBeforeCreate = appartementRepository.findAll().size();
+        List<Appartement> appartements = Arrays.asList(createEntity(em), createUpdatedEntity(em));
+
+        // Create the Appartements
+        MvcResult result = restAppartementMockMvc.perform(post("/api/appartements/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(appartements)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andReturn();
+
+        // Validate the Appartements in the database, the ids being returned in request order
+        assertThat(appartementRepository.findAll()).hasSize(databaseSizeBeforeCreate + 2);
+        DocumentContext ids = JsonPath.parse(result.getResponse().getContentAsString());
+        Long firstId = ids.read("$[0]", Long.class);
+        Long secondId = ids.read("$[1]", Long.class);
+        assertThat(appartementRepository.findById(firstId).get().getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(appartementRepository.findById(secondId).get().getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void createAppartementsWithEtageReference() throws Exception {
+        Etage etage = EtageResourceIT.createEntity(em);
+        em.persist(etage);
+        em.flush();
+        em.clear();
+        // The etage is only referenced by its id, without version
+        Etage etageReference = new Etage();
+        etageReference.setId(etage.getId());
+        Appartement otherAppartement = createUpdatedEntity(em).etage(etageReference);
+
+        restAppartementMockMvc.perform(post("/api/appartements").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(appartement.etage(etageReference))))
+            .andExpect(status().isCreated());
+        MvcResult result = restAppartementMockMvc.perform(post("/api/appartements/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(otherAppartement))))
+            .andExpect(status().isCreated())
+            .andReturn();
+
+        // The appartements belong to the etage, which is unchanged
+        Long bulkId = JsonPath.parse(result.getResponse().getContentAsString()).read("$[0]", Long.class);
+        em.clear();
+        assertThat(appartementRepository.findById(bulkId).get().getEtage().getId()).isEqualTo(etage.getId());
+        assertThat(appartementRepository.findAll()).filteredOn(saved -> saved.getEtage() != null && etage.getId().equals(saved.getEtage().getId()))
+            .hasSize(2);
+        assertThat(em.find(Etage.class, etage.getId()).getVersion()).isEqualTo(etage.getVersion());
+
+        // The bulk update of an appartement referencing the etage keeps it
+        otherAppartement.setId(bulkId);
+        otherAppartement.setName(DEFAULT_NAME);
+        restAppartementMockMvc.perform(put("/api/appartements/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(otherAppartement))))
+            .andExpect(status().isOk());
+        em.clear();
+        Appartement updatedAppartement = appartementRepository.findById(bulkId).get();
+        assertThat(updatedAppartement.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(updatedAppartement.getEtage().getId()).isEqualTo(etage.getId());
+    }
+
+    @Test
+    @Transactional
+    public void createAppartementsInBulkWithInvalidAppartement() throws Exception {
+        int databaseSizeBeforeCreate = appartementRepository.findAll().size();
+        Appartement invalidAppartement = createUpdatedEntity(em);
+        invalidAppartement.setName(null);
+
+        // The whole bulk request is rejected
+        restAppartementMockMvc.perform(post("/api/appartements/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(appartement, invalidAppartement))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.violations.[*].field").value(hasItem("createAppartements.appartements[1].name")));
+
+        assertThat(appartementRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     @Transactional
     public void createAppartementWithExistingId() throws Exception {
@@ -135,6 +238,45 @@ public class AppartementResourceIT {
         assertThat(appartementList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    public void importAppartements() throws Exception {
+        // The import commits its own transactions, so it is not run in a test transaction
+        List<Long> idsBeforeImport = appartementRepository.findAll().stream().map(Appartement::getId).collect(Collectors.toList());
+        String csv = "id;name;numeroappart;etage_id\n" +
+            "1;Imported;10;\n" +
+            "2;;11;\n" +
+            "3;Imported;x;\n" +
+            "4;Imported;12;" + Long.MAX_VALUE + "\n";
+        try {
+            restAppartementMockMvc.perform(post("/api/appartements/import").with(csrf())
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(4))
+                .andExpect(jsonPath("$.rowsImported").value(1))
+                .andExpect(jsonPath("$.rowsRejected").value(3))
+                .andExpect(jsonPath("$.errors[*].line").value(contains(3, 4, 5)));
+
+            assertThat(appartementRepository.findAll()).hasSize(idsBeforeImport.size() + 1);
+        } finally {
+            appartementRepository.findAll().stream()
+                .filter(imported -> !idsBeforeImport.contains(imported.getId()))
+                .forEach(appartementRepository::delete);
+        }
+    }
+
+    @Test
+    public void importAppartementsWithUnknownColumn() throws Exception {
+        int databaseSizeBeforeImport = appartementRepository.findAll().size();
+
+        restAppartementMockMvc.perform(post("/api/appartements/import").with(csrf())
+            .contentType("text/csv")
+            .content("numeroappart;floor\n1;A\n"))
+            .andExpect(status().isBadRequest());
+
+        assertThat(appartementRepository.findAll()).hasSize(databaseSizeBeforeImport);
+    }
+
     @Test
     @Transactional
     public void getAllAppartements() throws Exception {
@@ -150,6 +292,331 @@ public class AppartementResourceIT {
             .andExpect(jsonPath("$.[*].numeroappart").value(hasItem(DEFAULT_NUMEROAPPART)));
     }
     
+    @Test
+    @Transactional
+    public void getEtageAppartements() throws Exception {
+        // Initialize the database with an appartement in each of 2 etages
+        Etage etage = EtageResourceIT.createEntity(em);
+        em.persist(etage);
+        Etage otherEtage = EtageResourceIT.createEntity(em);
+        em.persist(otherEtage);
+        appartementRepository.saveAndFlush(appartement.etage(etage));
+        em.persist(createEntity(em).etage(otherEtage));
+
+        // Only the appartements of the etage are listed
+        restAppartementMockMvc.perform(get("/api/etages/{id}/appartements?sort=id,desc", etage.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(appartement.getId().intValue()))
+            .andExpect(jsonPath("$.[0].etageId").value(etage.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingEtageAppartements() throws Exception {
+        restAppartementMockMvc.perform(get("/api/etages/{id}/appartements", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getAllAppartementsStatementCount() throws Exception {
+        // Initialize the database with 2 batiments, 4 etages and 8 appartements
+        List<Appartement> appartements = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Batiment batiment = BatimentResourceIT.createEntity(em);
+            em.persist(batiment);
+            for (int j = 0; j < 2; j++) {
+                Etage etage = EtageResourceIT.createEntity(em).batiment(batiment);
+                em.persist(etage);
+                for (int k = 0; k < 2; k++) {
+                    Appartement otherAppartement = createEntity(em).etage(etage);
+                    em.persist(otherAppartement);
+                    appartements.add(otherAppartement);
+                }
+            }
+        }
+        String ids = appartements.stream().map(otherAppartement -> otherAppartement.getId().toString()).collect(Collectors.joining(","));
+        em.flush();
+        em.clear();
+
+        // A page is read with a single statement, whatever is expanded, as when the etages were loaded eagerly: it is a projection
+        restAppartementMockMvc.perform(get("/api/appartements?id.in=" + ids))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+        restAppartementMockMvc.perform(get("/api/appartements?expand=etage.batiment&id.in=" + ids))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+        restAppartementMockMvc.perform(get("/api/appartements?after=&id.in=" + ids))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+
+        // An appartement is read without its etage and batiment, where the eager etage was joined in the same statement
+        restAppartementMockMvc.perform(get("/api/appartements/{id}", appartements.get(0).getId()))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+
+        // The appartements updated in bulk, unchanged here, are read with a single statement, without their etages and batiments,
+        // where the eager etages took 5: the appartements, then each of their 4 etages with its batiment
+        restAppartementMockMvc.perform(put("/api/appartements/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(appartements)))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+    }
+
+    @Test
+    @Transactional
+    public void getAllAppartementsStatementBudget() throws Exception {
+        // Initialize the database with 2 batiments, 4 etages and 8 appartements
+        Etage firstEtage = null;
+        for (int i = 0; i < 2; i++) {
+            Batiment batiment = BatimentResourceIT.createEntity(em);
+            em.persist(batiment);
+            for (int j = 0; j < 2; j++) {
+                Etage etage = EtageResourceIT.createEntity(em).batiment(batiment);
+                em.persist(etage);
+                if (firstEtage == null) {
+                    firstEtage = etage;
+                }
+                for (int k = 0; k < 2; k++) {
+                    em.persist(createEntity(em).etage(etage));
+                }
+            }
+        }
+        em.flush();
+        em.clear();
+
+        // Each endpoint stays within its budget, without selecting the etages or batiments one by one
+        restAppartementMockMvc.perform(get("/api/appartements?sort=id,desc&expand=etage.batiment"))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+        restAppartementMockMvc.perform(get("/api/appartements?after=&expand=etage.batiment"))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+        restAppartementMockMvc.perform(get("/api/etages/{id}/appartements?expand=etage.batiment", firstEtage.getId()))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+        restAppartementMockMvc.perform(get("/api/appartements/count"))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+    }
+
+    @Test
+    @Transactional
+    public void getAppartementsByIdFiltering() throws Exception {
+        // Initialize the database
+        appartementRepository.saveAndFlush(appartement);
+        Long id = appartement.getId();
+
+        // Get all the appartementList where id equals to id
+        defaultAppartementShouldBeFound("id.equals=" + id);
+
+        // Get all the appartementList where id not equals to id
+        defaultAppartementShouldNotBeFound("id.notEquals=" + id);
+
+        // Get all the appartementList where id greater than or equal to id
+        defaultAppartementShouldBeFound("id.greaterThanOrEqual=" + id);
+
+        // Get all the appartementList where id greater than id
+        defaultAppartementShouldNotBeFound("id.greaterThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    public void getAllAppartementsByNameContainsSomething() throws Exception {
+        // Initialize the database
+        appartementRepository.saveAndFlush(appartement);
+
+        // Get all the appartementList where name contains DEFAULT_NAME
+        defaultAppartementShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the appartementList where name contains UPDATED_NAME
+        defaultAppartementShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void getAllAppartementsByNumeroappartIsGreaterThanSomething() throws Exception {
+        // Initialize the database
+        appartementRepository.saveAndFlush(appartement);
+
+        // Get all the appartementList where numeroappart is greater than SMALLER_NUMEROAPPART
+        defaultAppartementShouldBeFound("numeroappart.greaterThan=" + (DEFAULT_NUMEROAPPART - 1));
+
+        // Get all the appartementList where numeroappart is greater than DEFAULT_NUMEROAPPART
+        defaultAppartementShouldNotBeFound("numeroappart.greaterThan=" + DEFAULT_NUMEROAPPART);
+    }
+
+    @Test
+    @Transactional
+    public void getAllAppartementsByEtageIsEqualToSomething() throws Exception {
+        // Initialize the database
+        Etage etage = EtageResourceIT.createEntity(em);
+        em.persist(etage);
+        em.flush();
+        appartement.setEtage(etage);
+        appartementRepository.saveAndFlush(appartement);
+        Long etageId = etage.getId();
+
+        // Get all the appartementList where etage equals to etageId
+        defaultAppartementShouldBeFound("etageId.equals=" + etageId);
+
+        // Get all the appartementList where etage equals to etageId + 1
+        defaultAppartementShouldNotBeFound("etageId.equals=" + (etageId + 1));
+    }
+
+    @Test
+    @Transactional
+    public void getAllAppartementsByEtageBatimentIsEqualToSomething() throws Exception {
+        // Initialize the database
+        Batiment batiment = BatimentResourceIT.createEntity(em);
+        em.persist(batiment);
+        Etage etage = EtageResourceIT.createEntity(em).batiment(batiment);
+        em.persist(etage);
+        em.flush();
+        appartement.setEtage(etage);
+        appartementRepository.saveAndFlush(appartement);
+        Long batimentId = batiment.getId();
+
+        // Get all the appartementList where etage.batiment equals to batimentId
+        defaultAppartementShouldBeFound("etage.batimentId.equals=" + batimentId);
+
+        // Get all the appartementList where etage.batiment equals to batimentId + 1
+        defaultAppartementShouldNotBeFound("etage.batimentId.equals=" + (batimentId + 1));
+
+        // Get all the appartementList where etage.numeroetage in its etage number
+        defaultAppartementShouldBeFound("etage.numeroetage.in=" + etage.getNumeroetage() + ",1000");
+
+        // Get all the appartementList where etage.numeroetage in other numbers
+        defaultAppartementShouldNotBeFound("etage.numeroetage.in=999,1000");
+    }
+
+    @Test
+    @Transactional
+    public void getAllAppartementsWithEtageAndBatiment() throws Exception {
+        // Initialize the database
+        Batiment batiment = BatimentResourceIT.createEntity(em);
+        em.persist(batiment);
+        Etage etage = EtageResourceIT.createEntity(em).batiment(batiment);
+        em.persist(etage);
+        em.flush();
+        appartement.setEtage(etage);
+        appartementRepository.saveAndFlush(appartement);
+
+        // Get the appartement, with its etage and batiment read by the list query
+        restAppartementMockMvc.perform(get("/api/appartements?id.equals=" + appartement.getId() + "&sort=etage.numeroetage,asc&expand=etage,etage.batiment"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(appartement.getId().intValue()))
+            .andExpect(jsonPath("$.[0].etageId").value(etage.getId().intValue()))
+            .andExpect(jsonPath("$.[0].etage.id").value(etage.getId().intValue()))
+            .andExpect(jsonPath("$.[0].etage.numeroetage").value(etage.getNumeroetage()))
+            .andExpect(jsonPath("$.[0].etage.batimentId").value(batiment.getId().intValue()))
+            .andExpect(jsonPath("$.[0].etage.batiment.id").value(batiment.getId().intValue()))
+            .andExpect(jsonPath("$.[0].etage.batiment.name").value(batiment.getName()));
+
+        // Get the appartement with cursor pagination, expanding the etage only
+        restAppartementMockMvc.perform(get("/api/appartements?after=&id.equals=" + appartement.getId() + "&expand=etage"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].etage.numeroetage").value(etage.getNumeroetage()))
+            .andExpect(jsonPath("$.[0].etage.batimentId").value(batiment.getId().intValue()))
+            .andExpect(jsonPath("$.[0].etage.batiment").doesNotExist());
+
+        // Without expand, the etage is only referenced by its id
+        restAppartementMockMvc.perform(get("/api/appartements?id.equals=" + appartement.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].etageId").value(etage.getId().intValue()))
+            .andExpect(jsonPath("$.[0].etage").doesNotExist());
+        restAppartementMockMvc.perform(get("/api/appartements/{id}", appartement.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.etageId").value(etage.getId().intValue()))
+            .andExpect(jsonPath("$.etage").doesNotExist());
+
+        // Get the appartement by id, the batiment implying the etage
+        restAppartementMockMvc.perform(get("/api/appartements/{id}?expand=etage.batiment", appartement.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/")))
+            .andExpect(jsonPath("$.etage.batiment.name").value(batiment.getName()));
+    }
+
+    @Test
+    @Transactional
+    public void getAllAppartementsWithCursor() throws Exception {
+        // Initialize the database
+        appartementRepository.saveAndFlush(appartement);
+        Appartement nextAppartement = appartementRepository.saveAndFlush(createUpdatedEntity(em));
+        String cursor = CursorPaginationUtil.encodeCursor(appartement.getId() - 1);
+
+        // Get the first page, which links to the next one
+        MvcResult result = restAppartementMockMvc.perform(get("/api/appartements?after={cursor}&size=1", cursor))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(appartement.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andReturn();
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        String nextPage = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        // Get the next page
+        restAppartementMockMvc.perform(get(nextPage))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(nextAppartement.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void getAllAppartementsWithInvalidCursor() throws Exception {
+        restAppartementMockMvc.perform(get("/api/appartements?after=!!!"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportAppartements() throws Exception {
+        // Initialize the database, outside of a test transaction as the export runs in its own thread
+        appartementRepository.saveAndFlush(appartement);
+        try {
+            MvcResult result = restAppartementMockMvc.perform(get("/api/appartements/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            // One JSON appartement per line
+            String body = restAppartementMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportService.NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+            assertThat(body).endsWith("\n");
+            List<Integer> ids = Arrays.stream(body.split("\n"))
+                .map(line -> JsonPath.parse(line).read("$.id", Integer.class))
+                .collect(Collectors.toList());
+            assertThat(ids).contains(appartement.getId().intValue());
+        } finally {
+            appartementRepository.deleteById(appartement.getId());
+        }
+    }
+
+    @Test
+    public void exportAppartementsGzipped() throws Exception {
+        // Initialize the database, outside of a test transaction as the export runs in its own thread
+        appartementRepository.saveAndFlush(appartement);
+        try {
+            MvcResult result = restAppartementMockMvc.perform(get("/api/appartements/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            byte[] body = restAppartementMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+            String content = StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8);
+            assertThat(content).contains("\"id\":" + appartement.getId() + ",");
+        } finally {
+            appartementRepository.deleteById(appartement.getId());
+        }
+    }
+
     @Test
     @Transactional
     public void getAppartement() throws Exception {
@@ -164,6 +631,64 @@ public class AppartementResourceIT {
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
             .andExpect(jsonPath("$.numeroappart").value(DEFAULT_NUMEROAPPART));
     }
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultAppartementShouldBeFound(String filter) throws Exception {
+        restAppartementMockMvc.perform(get("/api/appartements?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(appartement.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].numeroappart").value(hasItem(DEFAULT_NUMEROAPPART)));
+
+        // Check, that the cursor pagination also applies the filter
+        restAppartementMockMvc.perform(get("/api/appartements?after=&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(appartement.getId().intValue())));
+
+        // Check, that the count call also returns 1
+        restAppartementMockMvc.perform(get("/api/appartements/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultAppartementShouldNotBeFound(String filter) throws Exception {
+        restAppartementMockMvc.perform(get("/api/appartements?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the cursor pagination also applies the filter
+        restAppartementMockMvc.perform(get("/api/appartements?after=&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restAppartementMockMvc.perform(get("/api/appartements/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+
+    @Test
+    @Transactional
+    public void getAppartementWithInvalidExpand() throws Exception {
+        // Initialize the database
+        appartementRepository.saveAndFlush(appartement);
+
+        restAppartementMockMvc.perform(get("/api/appartements/{id}?expand=batiment", appartement.getId()))
+            .andExpect(status().isBadRequest());
+        restAppartementMockMvc.perform(get("/api/appartements?expand=etage.appartements"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getNonExistingAppartement() throws Exception {
@@ -201,6 +726,126 @@ public class AppartementResourceIT {
         assertThat(testAppartement.getNumeroappart()).isEqualTo(UPDATED_NUMEROAPPART);
     }
 
+    @Test
+    @Transactional
+    public void updateAppartementWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        appartementRepository.saveAndFlush(appartement);
+        String staleETag = "\"" + (appartement.getVersion() - 1) + "\"";
+
+        // Update the appartement
+        Appartement updatedAppartement = appartementRepository.findById(appartement.getId()).get();
+        // Disconnect from session so that the updates on updatedAppartement are not directly saved in db
+        em.detach(updatedAppartement);
+        updatedAppartement
+            .name(UPDATED_NAME);
+
+        restAppartementMockMvc.perform(put("/api/appartements").with(csrf())
+            .header(HttpHeaders.IF_MATCH, staleETag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(updatedAppartement)))
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Appartement in the database
+        em.clear();
+        assertThat(appartementRepository.findById(appartement.getId()).get().getName()).isNotEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void patchAppartement() throws Exception {
+        // Initialize the database
+        Etage etage = EtageResourceIT.createEntity(em);
+        em.persist(etage);
+        appartementRepository.saveAndFlush(appartement);
+        String eTag = "\"" + appartement.getVersion() + "\"";
+
+        // Patch the numeroappart and the etage only
+        restAppartementMockMvc.perform(patch("/api/appartements/{id}", appartement.getId()).with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType("application/merge-patch+json")
+            .content("{\"numeroappart\":" + UPDATED_NUMEROAPPART + ",\"etage\":{\"id\":" + etage.getId() + "}}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.numeroappart").value(UPDATED_NUMEROAPPART))
+            .andExpect(jsonPath("$.etage.id").value(etage.getId().intValue()));
+
+        // The ETag read before the patch is stale
+        restAppartementMockMvc.perform(patch("/api/appartements/{id}", appartement.getId()).with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType("application/merge-patch+json")
+            .content("{\"name\":\"" + UPDATED_NAME + "\"}"))
+            .andExpect(status().isPreconditionFailed());
+
+        // Remove the etage
+        restAppartementMockMvc.perform(patch("/api/appartements/{id}", appartement.getId()).with(csrf())
+            .contentType("application/merge-patch+json")
+            .content("{\"etage\":null}"))
+            .andExpect(status().isOk());
+
+        // Validate the Appartement in the database
+        em.clear();
+        Appartement testAppartement = appartementRepository.findById(appartement.getId()).get();
+        assertThat(testAppartement.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(testAppartement.getNumeroappart()).isEqualTo(UPDATED_NUMEROAPPART);
+        assertThat(testAppartement.getEtage()).isNull();
+    }
+
+    @Test
+    @Transactional
+    public void patchAppartementWithInvalidPatch() throws Exception {
+        // Initialize the database
+        appartementRepository.saveAndFlush(appartement);
+
+        // The id cannot be changed
+        restAppartementMockMvc.perform(patch("/api/appartements/{id}", appartement.getId()).with(csrf())
+            .contentType("application/merge-patch+json")
+            .content("{\"id\":" + Long.MAX_VALUE + "}"))
+            .andExpect(status().isBadRequest());
+
+        // The etage must exist
+        restAppartementMockMvc.perform(patch("/api/appartements/{id}", appartement.getId()).with(csrf())
+            .contentType("application/merge-patch+json")
+            .content("{\"etage\":{\"id\":" + Long.MAX_VALUE + "}}"))
+            .andExpect(status().isBadRequest());
+
+        // The name is required
+        restAppartementMockMvc.perform(patch("/api/appartements/{id}", appartement.getId()).with(csrf())
+            .contentType("application/merge-patch+json")
+            .content("{\"name\":null}"))
+            .andExpect(status().isBadRequest());
+
+        // The appartement must exist
+        restAppartementMockMvc.perform(patch("/api/appartements/{id}", Long.MAX_VALUE).with(csrf())
+            .contentType("application/merge-patch+json")
+            .content("{}"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void updateAppartementWithEtage() throws Exception {
+        // Initialize the database
+        Etage etage = EtageResourceIT.createEntity(em);
+        em.persist(etage);
+        appartementRepository.saveAndFlush(appartement.etage(etage));
+        em.clear();
+
+        // The etage is referenced by its id only
+        restAppartementMockMvc.perform(put("/api/appartements").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"id\":" + appartement.getId() + ",\"name\":\"" + UPDATED_NAME + "\",\"etage\":{\"id\":" + etage.getId() + "}}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.etage.id").value(etage.getId().intValue()));
+
+        // Validate the Appartement in the database
+        em.clear();
+        Appartement testAppartement = appartementRepository.findById(appartement.getId()).get();
+        assertThat(testAppartement.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testAppartement.getEtage().getId()).isEqualTo(etage.getId());
+    }
+
     @Test
     @Transactional
     public void updateNonExistingAppartement() throws Exception {
@@ -217,6 +862,46 @@ public class AppartementResourceIT {
         assertThat(appartementList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    public void updateAppartementsInBulk() throws Exception {
+        // Initialize the database
+        appartementRepository.saveAndFlush(appartement);
+
+        int databaseSizeBeforeUpdate = appartementRepository.findAll().size();
+
+        // Update the appartement
+        Appartement updatedAppartement = appartementRepository.findById(appartement.getId()).get();
+        // Disconnect from session so that the updates on updatedAppartement are not directly saved in db
+        em.detach(updatedAppartement);
+        updatedAppartement
+            .name(UPDATED_NAME)
+            .numeroappart(UPDATED_NUMEROAPPART);
+
+        restAppartementMockMvc.perform(put("/api/appartements/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(updatedAppartement))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0]").value(appartement.getId().intValue()));
+
+        // Validate the Appartement in the database
+        List<Appartement> appartementList = appartementRepository.findAll();
+        assertThat(appartementList).hasSize(databaseSizeBeforeUpdate);
+        assertThat(appartementRepository.findById(appartement.getId()).get().getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void updateNonExistingAppartementsInBulk() throws Exception {
+        appartement.setId(Long.MAX_VALUE);
+
+        // An unknown id rejects the whole bulk request
+        restAppartementMockMvc.perform(put("/api/appartements/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(appartement))))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void deleteAppartement() throws Exception {
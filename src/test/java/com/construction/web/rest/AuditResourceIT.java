@@ -1,10 +1,14 @@
 package com.construction.web.rest;
 
 import com.construction.ConstructionMsApp;
+import com.construction.config.ApplicationProperties;
+import com.construction.config.ApplicationProperties.CountStrategy;
 import com.construction.config.TestSecurityConfiguration;
 import com.construction.domain.PersistentAuditEvent;
 import com.construction.repository.PersistenceAuditEventRepository;
 import com.construction.security.AuthoritiesConstants;
+import com.construction.service.CountService;
+import com.construction.web.rest.util.SlicePaginationUtil;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,17 +16,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -48,6 +56,12 @@ public class AuditResourceIT {
     @Autowired
     private MockMvc restAuditMockMvc;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private CountService countService;
+
     @BeforeEach
     public void initTest() {
         auditEventRepository.deleteAll();
@@ -66,7 +80,100 @@ public class AuditResourceIT {
         restAuditMockMvc.perform(get("/management/audits"))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
-            .andExpect(jsonPath("$.[*].principal").value(hasItem(SAMPLE_PRINCIPAL)));
+            .andExpect(jsonPath("$.[*].principal").value(hasItem(SAMPLE_PRINCIPAL)))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(header().string(SlicePaginationUtil.COUNT_STRATEGY_HEADER, "exact"));
+    }
+
+    @Test
+    public void getAllAuditsWithoutCount() throws Exception {
+        // Initialize the database
+        auditEventRepository.save(auditEvent);
+        PersistentAuditEvent otherAuditEvent = new PersistentAuditEvent();
+        otherAuditEvent.setAuditEventType(SAMPLE_TYPE);
+        otherAuditEvent.setPrincipal(SAMPLE_PRINCIPAL);
+        otherAuditEvent.setAuditEventDate(SAMPLE_TIMESTAMP);
+        auditEventRepository.save(otherAuditEvent);
+
+        applicationProperties.getCount().getStrategies().put("audits", CountStrategy.NONE);
+        try {
+            // Get the first page, which is followed by another one
+            restAuditMockMvc.perform(get("/management/audits?page=0&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(header().string(SlicePaginationUtil.COUNT_STRATEGY_HEADER, "none"))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("page=1&size=1>; rel=\"next\"")));
+
+            // Get the last page
+            restAuditMockMvc.perform(get("/management/audits?page=1&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))));
+        } finally {
+            applicationProperties.getCount().getStrategies().remove("audits");
+        }
+    }
+
+    @Test
+    public void getAllAuditsWithCachedCount() throws Exception {
+        // Initialize the database
+        auditEventRepository.save(auditEvent);
+
+        applicationProperties.getCount().getStrategies().put("audits", CountStrategy.CACHED);
+        countService.evict(PersistentAuditEvent.class);
+        try {
+            restAuditMockMvc.perform(get("/management/audits?size=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(header().string(SlicePaginationUtil.COUNT_STRATEGY_HEADER, "cached"));
+
+            // The count is only evicted when the transaction commits, so the cached count is still returned
+            PersistentAuditEvent otherAuditEvent = new PersistentAuditEvent();
+            otherAuditEvent.setAuditEventType(SAMPLE_TYPE);
+            otherAuditEvent.setPrincipal(SAMPLE_PRINCIPAL);
+            otherAuditEvent.setAuditEventDate(SAMPLE_TIMESTAMP);
+            auditEventRepository.saveAndFlush(otherAuditEvent);
+            restAuditMockMvc.perform(get("/management/audits?size=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"));
+
+            // Once evicted, the audits are counted again
+            countService.evict(PersistentAuditEvent.class);
+            restAuditMockMvc.perform(get("/management/audits?size=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"));
+        } finally {
+            applicationProperties.getCount().getStrategies().remove("audits");
+            countService.evict(PersistentAuditEvent.class);
+        }
+    }
+
+    @Test
+    public void getAllAuditsWithCursor() throws Exception {
+        // Initialize the database
+        auditEventRepository.save(auditEvent);
+        PersistentAuditEvent recentAuditEvent = new PersistentAuditEvent();
+        recentAuditEvent.setAuditEventType(SAMPLE_TYPE);
+        recentAuditEvent.setPrincipal("RECENT_PRINCIPAL");
+        recentAuditEvent.setAuditEventDate(SAMPLE_TIMESTAMP.plusSeconds(SECONDS_PER_DAY));
+        auditEventRepository.save(recentAuditEvent);
+
+        // Get the first page, most recent first
+        MvcResult result = restAuditMockMvc.perform(get("/management/audits?after=&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[0].principal").value("RECENT_PRINCIPAL"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        String nextPage = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        // Get the next page, which is the last one
+        restAuditMockMvc.perform(get(nextPage))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].principal").value(SAMPLE_PRINCIPAL))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
     }
 
     @Test
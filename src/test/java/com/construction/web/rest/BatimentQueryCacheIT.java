@@ -0,0 +1,100 @@
+package com.construction.web.rest;
+
+import com.construction.ConstructionMsApp;
+import com.construction.config.ReplicaRoutingDataSource;
+import com.construction.config.TestSecurityConfiguration;
+import com.construction.domain.Batiment;
+import com.construction.repository.BatimentRepository;
+import com.construction.service.BatimentQueryService;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the query cache of the {@link BatimentResource} REST controller, with a replica.
+ */
+@SpringBootTest(classes = { ConstructionMsApp.class, TestSecurityConfiguration.class }, properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+    "spring.jpa.properties.hibernate.cache.region.factory_class=com.hazelcast.hibernate.HazelcastCacheRegionFactory",
+    "spring.jpa.properties.hibernate.cache.hazelcast.instance_name=constructionMS",
+    "spring.jpa.properties.hibernate.cache.hazelcast.use_lite_member=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "application.replica.enabled=true"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+public class BatimentQueryCacheIT {
+
+    @Autowired
+    private BatimentRepository batimentRepository;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restBatimentMockMvc;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        replicaRoutingDataSource.checkReplica();
+        assertThat(replicaRoutingDataSource.isReplicaAvailable()).isTrue();
+    }
+
+    @Test
+    public void getAllBatimentsStoresThePagesReadInsteadOfTheReplica() throws Exception {
+        // Initialize the database, outside of a test transaction so that the request runs in a read-only one
+        Batiment batiment = batimentRepository.saveAndFlush(BatimentResourceIT.createEntity(em));
+        try {
+            long puts = queryRegionStatistic(CacheRegionStatistics::getPutCount);
+            long hits = queryRegionStatistic(CacheRegionStatistics::getHitCount);
+
+            // The page is read from the primary and stored
+            restBatimentMockMvc.perform(get("/api/batiments?id.equals=" + batiment.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(batiment.getId().intValue())));
+            assertThat(queryRegionStatistic(CacheRegionStatistics::getPutCount)).isEqualTo(puts + 1);
+            assertThat(queryRegionStatistic(CacheRegionStatistics::getHitCount)).isEqualTo(hits);
+
+            // Then read from the query cache
+            restBatimentMockMvc.perform(get("/api/batiments?id.equals=" + batiment.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(batiment.getId().intValue())));
+            assertThat(queryRegionStatistic(CacheRegionStatistics::getPutCount)).isEqualTo(puts + 1);
+            assertThat(queryRegionStatistic(CacheRegionStatistics::getHitCount)).isEqualTo(hits + 1);
+        } finally {
+            batimentRepository.deleteById(batiment.getId());
+        }
+    }
+
+    private long queryRegionStatistic(ToLongFunction<CacheRegionStatistics> statistic) {
+        CacheRegionStatistics regionStatistics = statistics.getQueryRegionStatistics(BatimentQueryService.QUERY_CACHE_REGION);
+        return regionStatistics != null ? statistic.applyAsLong(regionStatistics) : 0;
+    }
+}
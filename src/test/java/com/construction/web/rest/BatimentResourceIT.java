@@ -2,23 +2,46 @@ package com.construction.web.rest;
 
 import com.construction.ConstructionMsApp;
 import com.construction.config.TestSecurityConfiguration;
+import com.construction.domain.Appartement;
 import com.construction.domain.Batiment;
+import com.construction.domain.Etage;
+import com.construction.repository.AppartementRepository;
 import com.construction.repository.BatimentRepository;
+import com.construction.repository.EtageRepository;
+import com.construction.security.AuthoritiesConstants;
+import com.construction.service.ExportService;
+import com.construction.web.rest.util.CursorPaginationUtil;
 
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
 import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +60,12 @@ public class BatimentResourceIT {
     @Autowired
     private BatimentRepository batimentRepository;
 
+    @Autowired
+    private EtageRepository etageRepository;
+
+    @Autowired
+    private AppartementRepository appartementRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -90,6 +119,46 @@ public class BatimentResourceIT {
         assertThat(testBatiment.getName()).isEqualTo(DEFAULT_NAME);
     }
 
+    @Test
+    @Transactional
+    public void createBatimentsInBulk() throws Exception {
+        int databaseSizeBeforeCreate = batimentRepository.findAll().size();
+        List<Batiment> batiments = Arrays.asList(createEntity(em), createUpdatedEntity(em));
+
+        // Create the Batiments
+        MvcResult result = restBatimentMockMvc.perform(post("/api/batiments/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(batiments)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andReturn();
+
+        // Validate the Batiments in the database, the ids being returned in request order
+        assertThat(batimentRepository.findAll()).hasSize(databaseSizeBeforeCreate + 2);
+        DocumentContext ids = JsonPath.parse(result.getResponse().getContentAsString());
+        Long firstId = ids.read("$[0]", Long.class);
+        Long secondId = ids.read("$[1]", Long.class);
+        assertThat(batimentRepository.findById(firstId).get().getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(batimentRepository.findById(secondId).get().getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void createBatimentsInBulkWithInvalidBatiment() throws Exception {
+        int databaseSizeBeforeCreate = batimentRepository.findAll().size();
+        Batiment invalidBatiment = createUpdatedEntity(em);
+        invalidBatiment.setName(null);
+
+        // The whole bulk request is rejected
+        restBatimentMockMvc.perform(post("/api/batiments/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(batiment, invalidBatiment))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.violations.[*].field").value(hasItem("createBatiments.batiments[1].name")));
+
+        assertThat(batimentRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     @Transactional
     public void createBatimentWithExistingId() throws Exception {
@@ -129,6 +198,44 @@ public class BatimentResourceIT {
         assertThat(batimentList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    public void importBatiments() throws Exception {
+        // The import commits its own transactions, so it is not run in a test transaction
+        List<Long> idsBeforeImport = batimentRepository.findAll().stream().map(Batiment::getId).collect(Collectors.toList());
+        String csv = "id;name\n" +
+            "1;Imported\n" +
+            "2;\n" +
+            "3;\"Imported; with a separator\"\n";
+        try {
+            restBatimentMockMvc.perform(post("/api/batiments/import").with(csrf())
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(3))
+                .andExpect(jsonPath("$.rowsImported").value(2))
+                .andExpect(jsonPath("$.rowsRejected").value(1))
+                .andExpect(jsonPath("$.errors[*].line").value(contains(3)));
+
+            assertThat(batimentRepository.findAll()).hasSize(idsBeforeImport.size() + 2);
+        } finally {
+            batimentRepository.findAll().stream()
+                .filter(imported -> !idsBeforeImport.contains(imported.getId()))
+                .forEach(batimentRepository::delete);
+        }
+    }
+
+    @Test
+    public void importBatimentsWithUnknownColumn() throws Exception {
+        int databaseSizeBeforeImport = batimentRepository.findAll().size();
+
+        restBatimentMockMvc.perform(post("/api/batiments/import").with(csrf())
+            .contentType("text/csv")
+            .content("name;address\n1;A\n"))
+            .andExpect(status().isBadRequest());
+
+        assertThat(batimentRepository.findAll()).hasSize(databaseSizeBeforeImport);
+    }
+
     @Test
     @Transactional
     public void getAllBatiments() throws Exception {
@@ -143,6 +250,116 @@ public class BatimentResourceIT {
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
     }
     
+    @Test
+    @Transactional
+    public void getBatimentsByIdFiltering() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+        Long id = batiment.getId();
+
+        // Get all the batimentList where id equals to id
+        defaultBatimentShouldBeFound("id.equals=" + id);
+
+        // Get all the batimentList where id not equals to id
+        defaultBatimentShouldNotBeFound("id.notEquals=" + id);
+
+        // Get all the batimentList where id greater than or equal to id
+        defaultBatimentShouldBeFound("id.greaterThanOrEqual=" + id);
+
+        // Get all the batimentList where id greater than id
+        defaultBatimentShouldNotBeFound("id.greaterThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    public void getAllBatimentsByNameContainsSomething() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+
+        // Get all the batimentList where name contains DEFAULT_NAME
+        defaultBatimentShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the batimentList where name contains UPDATED_NAME
+        defaultBatimentShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void getAllBatimentsWithCursor() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+        Batiment nextBatiment = batimentRepository.saveAndFlush(createUpdatedEntity(em));
+        String cursor = CursorPaginationUtil.encodeCursor(batiment.getId() - 1);
+
+        // Get the first page, which links to the next one
+        MvcResult result = restBatimentMockMvc.perform(get("/api/batiments?after={cursor}&size=1", cursor))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(batiment.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andReturn();
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        String nextPage = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        // Get the next page
+        restBatimentMockMvc.perform(get(nextPage))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(nextBatiment.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void getAllBatimentsWithInvalidCursor() throws Exception {
+        restBatimentMockMvc.perform(get("/api/batiments?after=!!!"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportBatiments() throws Exception {
+        // Initialize the database, outside of a test transaction as the export runs in its own thread
+        batimentRepository.saveAndFlush(batiment);
+        try {
+            MvcResult result = restBatimentMockMvc.perform(get("/api/batiments/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            // One JSON batiment per line
+            String body = restBatimentMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportService.NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+            assertThat(body).endsWith("\n");
+            List<Integer> ids = Arrays.stream(body.split("\n"))
+                .map(line -> JsonPath.parse(line).read("$.id", Integer.class))
+                .collect(Collectors.toList());
+            assertThat(ids).contains(batiment.getId().intValue());
+        } finally {
+            batimentRepository.deleteById(batiment.getId());
+        }
+    }
+
+    @Test
+    public void exportBatimentsGzipped() throws Exception {
+        // Initialize the database, outside of a test transaction as the export runs in its own thread
+        batimentRepository.saveAndFlush(batiment);
+        try {
+            MvcResult result = restBatimentMockMvc.perform(get("/api/batiments/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            byte[] body = restBatimentMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+            String content = StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8);
+            assertThat(content).contains("\"id\":" + batiment.getId() + ",");
+        } finally {
+            batimentRepository.deleteById(batiment.getId());
+        }
+    }
+
     @Test
     @Transactional
     public void getBatiment() throws Exception {
@@ -156,6 +373,133 @@ public class BatimentResourceIT {
             .andExpect(jsonPath("$.id").value(batiment.getId().intValue()))
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
     }
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultBatimentShouldBeFound(String filter) throws Exception {
+        restBatimentMockMvc.perform(get("/api/batiments?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(batiment.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+
+        // Check, that the cursor pagination also applies the filter
+        restBatimentMockMvc.perform(get("/api/batiments?after=&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(batiment.getId().intValue())));
+
+        // Check, that the count call also returns 1
+        restBatimentMockMvc.perform(get("/api/batiments/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultBatimentShouldNotBeFound(String filter) throws Exception {
+        restBatimentMockMvc.perform(get("/api/batiments?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the cursor pagination also applies the filter
+        restBatimentMockMvc.perform(get("/api/batiments?after=&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restBatimentMockMvc.perform(get("/api/batiments/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+
+    @Test
+    @Transactional
+    public void getBatimentNotModified() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+
+        String eTag = restBatimentMockMvc.perform(get("/api/batiments/{id}", batiment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + batiment.getVersion() + "\""))
+            .andExpect(jsonPath("$.version").doesNotExist())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // The client already has the current version
+        restBatimentMockMvc.perform(get("/api/batiments/{id}", batiment.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+
+        // The batiment has changed since
+        batimentRepository.saveAndFlush(batiment.name(UPDATED_NAME));
+        restBatimentMockMvc.perform(get("/api/batiments/{id}", batiment.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+    }
+
+    @Test
+    @Transactional
+    public void getAllBatimentsNotModified() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+
+        String eTag = restBatimentMockMvc.perform(get("/api/batiments?id.equals=" + batiment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/")))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        restBatimentMockMvc.perform(get("/api/batiments?id.equals=" + batiment.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // A batiment of the page has changed since
+        batimentRepository.saveAndFlush(batiment.name(UPDATED_NAME));
+        restBatimentMockMvc.perform(get("/api/batiments?id.equals=" + batiment.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItem(UPDATED_NAME)));
+    }
+
+    @Test
+    @Transactional
+    public void getAllBatimentsStatementCount() throws Exception {
+        // Initialize the database with 2 batiments, each one with 2 etages of 2 appartements
+        List<Batiment> batiments = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Batiment otherBatiment = createEntity(em);
+            em.persist(otherBatiment);
+            batiments.add(otherBatiment);
+            for (int j = 0; j < 2; j++) {
+                Etage etage = EtageResourceIT.createEntity(em).batiment(otherBatiment);
+                em.persist(etage);
+                for (int k = 0; k < 2; k++) {
+                    em.persist(AppartementResourceIT.createEntity(em).etage(etage));
+                }
+            }
+        }
+        String ids = batiments.stream().map(otherBatiment -> otherBatiment.getId().toString()).collect(Collectors.joining(","));
+        em.flush();
+        em.clear();
+
+        // A page is read with a single statement, as before the to-one associations were lazy: the batiments have none
+        restBatimentMockMvc.perform(get("/api/batiments?id.in=" + ids))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+        restBatimentMockMvc.perform(get("/api/batiments?after=&id.in=" + ids))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+
+        // A tree is read with one statement for the batiment and one for its etages and appartements, both fetch joined as before
+        restBatimentMockMvc.perform(get("/api/batiments/{id}/tree", batiments.get(0).getId()))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(2));
+    }
+
     @Test
     @Transactional
     public void getNonExistingBatiment() throws Exception {
@@ -164,6 +508,147 @@ public class BatimentResourceIT {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void getBatimentSummaries() throws Exception {
+        // Initialize the database, outside of a test transaction as the summaries are updated on commit
+        batimentRepository.saveAndFlush(batiment);
+        Batiment otherBatiment = batimentRepository.saveAndFlush(createUpdatedEntity(em));
+        Etage etage = etageRepository.saveAndFlush(EtageResourceIT.createEntity(em).batiment(batiment));
+        Etage otherEtage = etageRepository.saveAndFlush(EtageResourceIT.createEntity(em).batiment(otherBatiment));
+        Appartement appartement = appartementRepository.saveAndFlush(AppartementResourceIT.createEntity(em).etage(etage));
+        try {
+            defaultBatimentSummaryShouldBe(batiment, 1, 1);
+            defaultBatimentSummaryShouldBe(otherBatiment, 1, 0);
+
+            // Move the appartement to the other batiment
+            appartementRepository.saveAndFlush(appartement.etage(otherEtage));
+            defaultBatimentSummaryShouldBe(batiment, 1, 0);
+            defaultBatimentSummaryShouldBe(otherBatiment, 1, 1);
+
+            // Move the etage of the appartement back to the first batiment, with its appartement
+            etageRepository.saveAndFlush(otherEtage.batiment(batiment));
+            defaultBatimentSummaryShouldBe(batiment, 2, 1);
+            defaultBatimentSummaryShouldBe(otherBatiment, 0, 0);
+
+            // Rename the batiment
+            batimentRepository.saveAndFlush(batiment.name(UPDATED_NAME));
+            restBatimentMockMvc.perform(get("/api/batiments/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[?(@.id == " + batiment.getId() + ")].name").value(UPDATED_NAME));
+        } finally {
+            appartementRepository.deleteById(appartement.getId());
+            etageRepository.deleteById(etage.getId());
+            etageRepository.deleteById(otherEtage.getId());
+            batimentRepository.deleteById(batiment.getId());
+            batimentRepository.deleteById(otherBatiment.getId());
+        }
+
+        // Deleted batiments have no summary
+        restBatimentMockMvc.perform(get("/api/batiments/summary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(batiment.getId().intValue()))));
+    }
+
+    @Test
+    public void getBatimentSummariesWithEtageReference() throws Exception {
+        // Initialize the database, outside of a test transaction as the summaries are updated on commit
+        batimentRepository.saveAndFlush(batiment);
+        Etage etage = etageRepository.saveAndFlush(EtageResourceIT.createEntity(em).batiment(batiment));
+        // The etage is only referenced by its id, as the clients of the API do
+        Etage etageReference = new Etage();
+        etageReference.setId(etage.getId());
+        try {
+            restBatimentMockMvc.perform(post("/api/appartements").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(AppartementResourceIT.createEntity(em).etage(etageReference))))
+                .andExpect(status().isCreated());
+            defaultBatimentSummaryShouldBe(batiment, 1, 1);
+
+            restBatimentMockMvc.perform(post("/api/appartements/bulk").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(AppartementResourceIT.createEntity(em).etage(etageReference)))))
+                .andExpect(status().isCreated());
+            defaultBatimentSummaryShouldBe(batiment, 1, 2);
+        } finally {
+            appartementRepository.findAll().stream()
+                .filter(appartement -> appartement.getEtage() != null && etage.getId().equals(appartement.getEtage().getId()))
+                .forEach(appartementRepository::delete);
+            etageRepository.deleteById(etage.getId());
+            batimentRepository.deleteById(batiment.getId());
+        }
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    public void rebuildBatimentSummaries() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+        Etage etage = etageRepository.saveAndFlush(EtageResourceIT.createEntity(em).batiment(batiment));
+        try {
+            restBatimentMockMvc.perform(post("/api/batiments/summary/rebuild").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[?(@.id == " + batiment.getId() + ")].etageCount").value(1))
+                .andExpect(jsonPath("$.[?(@.id == " + batiment.getId() + ")].appartementCount").value(0));
+            defaultBatimentSummaryShouldBe(batiment, 1, 0);
+        } finally {
+            etageRepository.deleteById(etage.getId());
+            batimentRepository.deleteById(batiment.getId());
+        }
+    }
+
+    @Test
+    public void rebuildBatimentSummariesIsForbiddenForUsers() throws Exception {
+        restBatimentMockMvc.perform(post("/api/batiments/summary/rebuild").with(csrf()))
+            .andExpect(status().isForbidden());
+    }
+
+    /**
+     * Executes the search, and checks that the summary of the batiment has the given counts.
+     */
+    private void defaultBatimentSummaryShouldBe(Batiment batiment, int etageCount, int appartementCount) throws Exception {
+        restBatimentMockMvc.perform(get("/api/batiments/summary"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[?(@.id == " + batiment.getId() + ")].etageCount").value(etageCount))
+            .andExpect(jsonPath("$.[?(@.id == " + batiment.getId() + ")].appartementCount").value(appartementCount));
+    }
+
+    @Test
+    @Transactional
+    public void getBatimentTree() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+        Etage upperEtage = EtageResourceIT.createEntity(em).numeroetage(2).batiment(batiment);
+        em.persist(upperEtage);
+        Etage lowerEtage = EtageResourceIT.createEntity(em).numeroetage(1).batiment(batiment);
+        em.persist(lowerEtage);
+        Appartement appartement = AppartementResourceIT.createEntity(em).etage(upperEtage);
+        em.persist(appartement);
+        em.flush();
+        em.clear();
+
+        // Get the batiment tree
+        restBatimentMockMvc.perform(get("/api/batiments/{id}/tree", batiment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(batiment.getId().intValue()))
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.etages.length()").value(2))
+            .andExpect(jsonPath("$.etages[0].id").value(lowerEtage.getId().intValue()))
+            .andExpect(jsonPath("$.etages[0].appartements").isEmpty())
+            .andExpect(jsonPath("$.etages[1].id").value(upperEtage.getId().intValue()))
+            .andExpect(jsonPath("$.etages[1].appartements[0].id").value(appartement.getId().intValue()))
+            .andExpect(jsonPath("$.etages[1].appartements[0].name").value(appartement.getName()));
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingBatimentTree() throws Exception {
+        // Get the batiment tree
+        restBatimentMockMvc.perform(get("/api/batiments/{id}/tree", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     public void updateBatiment() throws Exception {
@@ -191,6 +676,42 @@ public class BatimentResourceIT {
         assertThat(testBatiment.getName()).isEqualTo(UPDATED_NAME);
     }
 
+    @Test
+    @Transactional
+    public void updateBatimentWithIfMatch() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+        String eTag = "\"" + batiment.getVersion() + "\"";
+
+        // Update the batiment
+        Batiment updatedBatiment = batimentRepository.findById(batiment.getId()).get();
+        // Disconnect from session so that the updates on updatedBatiment are not directly saved in db
+        em.detach(updatedBatiment);
+        updatedBatiment
+            .name(UPDATED_NAME);
+
+        String newETag = restBatimentMockMvc.perform(put("/api/batiments").with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(updatedBatiment)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // The ETag read before the update is stale
+        restBatimentMockMvc.perform(put("/api/batiments").with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(updatedBatiment.name(DEFAULT_NAME))))
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Batiment in the database
+        em.clear();
+        Batiment testBatiment = batimentRepository.findById(batiment.getId()).get();
+        assertThat(testBatiment.getName()).isEqualTo(UPDATED_NAME);
+        assertThat("\"" + testBatiment.getVersion() + "\"").isEqualTo(newETag);
+    }
+
     @Test
     @Transactional
     public void updateNonExistingBatiment() throws Exception {
@@ -207,6 +728,99 @@ public class BatimentResourceIT {
         assertThat(batimentList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    public void updateBatimentsInBulk() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+
+        int databaseSizeBeforeUpdate = batimentRepository.findAll().size();
+
+        // Update the batiment
+        Batiment updatedBatiment = batimentRepository.findById(batiment.getId()).get();
+        // Disconnect from session so that the updates on updatedBatiment are not directly saved in db
+        em.detach(updatedBatiment);
+        updatedBatiment
+            .name(UPDATED_NAME);
+
+        restBatimentMockMvc.perform(put("/api/batiments/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(updatedBatiment))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0]").value(batiment.getId().intValue()));
+
+        // Validate the Batiment in the database
+        List<Batiment> batimentList = batimentRepository.findAll();
+        assertThat(batimentList).hasSize(databaseSizeBeforeUpdate);
+        assertThat(batimentRepository.findById(batiment.getId()).get().getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void updateNonExistingBatimentsInBulk() throws Exception {
+        batiment.setId(Long.MAX_VALUE);
+
+        // An unknown id rejects the whole bulk request
+        restBatimentMockMvc.perform(put("/api/batiments/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(batiment))))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void patchBatiment() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+        String eTag = "\"" + batiment.getVersion() + "\"";
+
+        // Patch the name
+        restBatimentMockMvc.perform(patch("/api/batiments/{id}", batiment.getId()).with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType("application/merge-patch+json")
+            .content("{\"name\":\"" + UPDATED_NAME + "\"}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+
+        // The ETag read before the patch is stale
+        restBatimentMockMvc.perform(patch("/api/batiments/{id}", batiment.getId()).with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType("application/merge-patch+json")
+            .content("{\"name\":\"" + DEFAULT_NAME + "\"}"))
+            .andExpect(status().isPreconditionFailed());
+
+        // The etages cannot be patched
+        restBatimentMockMvc.perform(patch("/api/batiments/{id}", batiment.getId()).with(csrf())
+            .contentType("application/merge-patch+json")
+            .content("{\"etages\":[]}"))
+            .andExpect(status().isBadRequest());
+
+        // Validate the Batiment in the database
+        em.clear();
+        assertThat(batimentRepository.findById(batiment.getId()).get().getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    public void patchBatimentChangedConcurrently() throws Exception {
+        // Initialize the database
+        batimentRepository.saveAndFlush(batiment);
+        String eTag = "\"" + batiment.getVersion() + "\"";
+
+        // Another transaction updates the batiment after it was loaded in the persistence context
+        em.createNativeQuery("update batiment set version = version + 1 where id = :id")
+            .setParameter("id", batiment.getId())
+            .executeUpdate();
+
+        // The version is checked again by the update
+        restBatimentMockMvc.perform(patch("/api/batiments/{id}", batiment.getId()).with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType("application/merge-patch+json")
+            .content("{\"name\":\"" + UPDATED_NAME + "\"}"))
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @Transactional
     public void deleteBatiment() throws Exception {
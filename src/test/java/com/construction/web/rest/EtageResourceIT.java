@@ -2,23 +2,41 @@ package com.construction.web.rest;
 
 import com.construction.ConstructionMsApp;
 import com.construction.config.TestSecurityConfiguration;
+import com.construction.domain.Batiment;
 import com.construction.domain.Etage;
 import com.construction.repository.EtageRepository;
+import com.construction.service.ExportService;
+import com.construction.web.rest.util.CursorPaginationUtil;
 
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
 import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -90,6 +108,46 @@ public class EtageResourceIT {
         assertThat(testEtage.getNumeroetage()).isEqualTo(DEFAULT_NUMEROETAGE);
     }
 
+    @Test
+    @Transactional
+    public void createEtagesInBulk() throws Exception {
+        int databaseSizeBeforeCreate = etageRepository.findAll().size();
+        List<Etage> etages = Arrays.asList(createEntity(em), createUpdatedEntity(em));
+
+        // Create the Etages
+        MvcResult result = restEtageMockMvc.perform(post("/api/etages/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(etages)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andReturn();
+
+        // Validate the Etages in the database, the ids being returned in request order
+        assertThat(etageRepository.findAll()).hasSize(databaseSizeBeforeCreate + 2);
+        DocumentContext ids = JsonPath.parse(result.getResponse().getContentAsString());
+        Long firstId = ids.read("$[0]", Long.class);
+        Long secondId = ids.read("$[1]", Long.class);
+        assertThat(etageRepository.findById(firstId).get().getNumeroetage()).isEqualTo(DEFAULT_NUMEROETAGE);
+        assertThat(etageRepository.findById(secondId).get().getNumeroetage()).isEqualTo(UPDATED_NUMEROETAGE);
+    }
+
+    @Test
+    @Transactional
+    public void createEtagesInBulkWithInvalidEtage() throws Exception {
+        int databaseSizeBeforeCreate = etageRepository.findAll().size();
+        Etage invalidEtage = createUpdatedEntity(em);
+        invalidEtage.setNumeroetage(null);
+
+        // The whole bulk request is rejected
+        restEtageMockMvc.perform(post("/api/etages/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(etage, invalidEtage))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.violations.[*].field").value(hasItem("createEtages.etages[1].numeroetage")));
+
+        assertThat(etageRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     @Transactional
     public void createEtageWithExistingId() throws Exception {
@@ -129,6 +187,45 @@ public class EtageResourceIT {
         assertThat(etageList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    public void importEtages() throws Exception {
+        // The import commits its own transactions, so it is not run in a test transaction
+        List<Long> idsBeforeImport = etageRepository.findAll().stream().map(Etage::getId).collect(Collectors.toList());
+        String csv = "id;numeroetage;batiment_id\n" +
+            "1;10;\n" +
+            "2;;\n" +
+            "3;x;\n" +
+            "4;12;" + Long.MAX_VALUE + "\n";
+        try {
+            restEtageMockMvc.perform(post("/api/etages/import").with(csrf())
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(4))
+                .andExpect(jsonPath("$.rowsImported").value(1))
+                .andExpect(jsonPath("$.rowsRejected").value(3))
+                .andExpect(jsonPath("$.errors[*].line").value(contains(3, 4, 5)));
+
+            assertThat(etageRepository.findAll()).hasSize(idsBeforeImport.size() + 1);
+        } finally {
+            etageRepository.findAll().stream()
+                .filter(imported -> !idsBeforeImport.contains(imported.getId()))
+                .forEach(etageRepository::delete);
+        }
+    }
+
+    @Test
+    public void importEtagesWithUnknownColumn() throws Exception {
+        int databaseSizeBeforeImport = etageRepository.findAll().size();
+
+        restEtageMockMvc.perform(post("/api/etages/import").with(csrf())
+            .contentType("text/csv")
+            .content("numeroetage;floor\n1;A\n"))
+            .andExpect(status().isBadRequest());
+
+        assertThat(etageRepository.findAll()).hasSize(databaseSizeBeforeImport);
+    }
+
     @Test
     @Transactional
     public void getAllEtages() throws Exception {
@@ -143,6 +240,134 @@ public class EtageResourceIT {
             .andExpect(jsonPath("$.[*].numeroetage").value(hasItem(DEFAULT_NUMEROETAGE)));
     }
     
+    @Test
+    @Transactional
+    public void getEtagesByIdFiltering() throws Exception {
+        // Initialize the database
+        etageRepository.saveAndFlush(etage);
+        Long id = etage.getId();
+
+        // Get all the etageList where id equals to id
+        defaultEtageShouldBeFound("id.equals=" + id);
+
+        // Get all the etageList where id not equals to id
+        defaultEtageShouldNotBeFound("id.notEquals=" + id);
+
+        // Get all the etageList where id greater than or equal to id
+        defaultEtageShouldBeFound("id.greaterThanOrEqual=" + id);
+
+        // Get all the etageList where id greater than id
+        defaultEtageShouldNotBeFound("id.greaterThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    public void getAllEtagesByNumeroetageIsInShouldWork() throws Exception {
+        // Initialize the database
+        etageRepository.saveAndFlush(etage);
+
+        // Get all the etageList where numeroetage in DEFAULT_NUMEROETAGE or UPDATED_NUMEROETAGE
+        defaultEtageShouldBeFound("numeroetage.in=" + DEFAULT_NUMEROETAGE + "," + UPDATED_NUMEROETAGE);
+
+        // Get all the etageList where numeroetage equals to UPDATED_NUMEROETAGE
+        defaultEtageShouldNotBeFound("numeroetage.in=" + UPDATED_NUMEROETAGE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllEtagesByBatimentIsEqualToSomething() throws Exception {
+        // Initialize the database
+        Batiment batiment = BatimentResourceIT.createEntity(em);
+        em.persist(batiment);
+        em.flush();
+        etage.setBatiment(batiment);
+        etageRepository.saveAndFlush(etage);
+        Long batimentId = batiment.getId();
+
+        // Get all the etageList where batiment equals to batimentId
+        defaultEtageShouldBeFound("batimentId.equals=" + batimentId);
+
+        // Get all the etageList where batiment equals to batimentId + 1
+        defaultEtageShouldNotBeFound("batimentId.equals=" + (batimentId + 1));
+    }
+
+    @Test
+    @Transactional
+    public void getAllEtagesWithCursor() throws Exception {
+        // Initialize the database
+        etageRepository.saveAndFlush(etage);
+        Etage nextEtage = etageRepository.saveAndFlush(createUpdatedEntity(em));
+        String cursor = CursorPaginationUtil.encodeCursor(etage.getId() - 1);
+
+        // Get the first page, which links to the next one
+        MvcResult result = restEtageMockMvc.perform(get("/api/etages?after={cursor}&size=1", cursor))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(etage.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andReturn();
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        String nextPage = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        // Get the next page
+        restEtageMockMvc.perform(get(nextPage))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(nextEtage.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void getAllEtagesWithInvalidCursor() throws Exception {
+        restEtageMockMvc.perform(get("/api/etages?after=!!!"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportEtages() throws Exception {
+        // Initialize the database, outside of a test transaction as the export runs in its own thread
+        etageRepository.saveAndFlush(etage);
+        try {
+            MvcResult result = restEtageMockMvc.perform(get("/api/etages/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            // One JSON etage per line
+            String body = restEtageMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportService.NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+            assertThat(body).endsWith("\n");
+            List<Integer> ids = Arrays.stream(body.split("\n"))
+                .map(line -> JsonPath.parse(line).read("$.id", Integer.class))
+                .collect(Collectors.toList());
+            assertThat(ids).contains(etage.getId().intValue());
+        } finally {
+            etageRepository.deleteById(etage.getId());
+        }
+    }
+
+    @Test
+    public void exportEtagesGzipped() throws Exception {
+        // Initialize the database, outside of a test transaction as the export runs in its own thread
+        etageRepository.saveAndFlush(etage);
+        try {
+            MvcResult result = restEtageMockMvc.perform(get("/api/etages/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            byte[] body = restEtageMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+            String content = StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8);
+            assertThat(content).contains("\"id\":" + etage.getId() + ",");
+        } finally {
+            etageRepository.deleteById(etage.getId());
+        }
+    }
+
     @Test
     @Transactional
     public void getEtage() throws Exception {
@@ -156,6 +381,146 @@ public class EtageResourceIT {
             .andExpect(jsonPath("$.id").value(etage.getId().intValue()))
             .andExpect(jsonPath("$.numeroetage").value(DEFAULT_NUMEROETAGE));
     }
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultEtageShouldBeFound(String filter) throws Exception {
+        restEtageMockMvc.perform(get("/api/etages?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(etage.getId().intValue())))
+            .andExpect(jsonPath("$.[*].numeroetage").value(hasItem(DEFAULT_NUMEROETAGE)));
+
+        // Check, that the cursor pagination also applies the filter
+        restEtageMockMvc.perform(get("/api/etages?after=&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(etage.getId().intValue())));
+
+        // Check, that the count call also returns 1
+        restEtageMockMvc.perform(get("/api/etages/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultEtageShouldNotBeFound(String filter) throws Exception {
+        restEtageMockMvc.perform(get("/api/etages?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the cursor pagination also applies the filter
+        restEtageMockMvc.perform(get("/api/etages?after=&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restEtageMockMvc.perform(get("/api/etages/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+
+    @Test
+    @Transactional
+    public void getEtageWithBatiment() throws Exception {
+        // Initialize the database
+        Batiment batiment = BatimentResourceIT.createEntity(em);
+        em.persist(batiment);
+        etageRepository.saveAndFlush(etage.batiment(batiment));
+
+        // Without expand, the batiment is only referenced by its id
+        restEtageMockMvc.perform(get("/api/etages/{id}", etage.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.batimentId").value(batiment.getId().intValue()))
+            .andExpect(jsonPath("$.batiment").doesNotExist());
+
+        restEtageMockMvc.perform(get("/api/etages/{id}?expand=batiment", etage.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.batiment.name").value(batiment.getName()));
+        restEtageMockMvc.perform(get("/api/etages?id.equals=" + etage.getId() + "&expand=batiment"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].batiment.name").value(batiment.getName()));
+    }
+
+    @Test
+    @Transactional
+    public void getBatimentEtages() throws Exception {
+        // Initialize the database with an etage in each of 2 batiments
+        Batiment batiment = BatimentResourceIT.createEntity(em);
+        em.persist(batiment);
+        Batiment otherBatiment = BatimentResourceIT.createEntity(em);
+        em.persist(otherBatiment);
+        etageRepository.saveAndFlush(etage.batiment(batiment));
+        em.persist(createEntity(em).batiment(otherBatiment));
+
+        // Only the etages of the batiment are listed
+        restEtageMockMvc.perform(get("/api/batiments/{id}/etages?sort=id,desc", batiment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(etage.getId().intValue()))
+            .andExpect(jsonPath("$.[0].batimentId").value(batiment.getId().intValue()));
+        restEtageMockMvc.perform(get("/api/batiments/{id}/etages?expand=batiment", batiment.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].batiment.name").value(batiment.getName()));
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingBatimentEtages() throws Exception {
+        restEtageMockMvc.perform(get("/api/batiments/{id}/etages", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getAllEtagesStatementCount() throws Exception {
+        // Initialize the database with 2 batiments and 4 etages
+        List<Etage> etages = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Batiment batiment = BatimentResourceIT.createEntity(em);
+            em.persist(batiment);
+            for (int j = 0; j < 2; j++) {
+                Etage otherEtage = createEntity(em).batiment(batiment);
+                em.persist(otherEtage);
+                etages.add(otherEtage);
+            }
+        }
+        String ids = etages.stream().map(otherEtage -> otherEtage.getId().toString()).collect(Collectors.joining(","));
+        em.flush();
+        em.clear();
+
+        // A page is read with a single statement, whatever is expanded, as when the batiments were loaded eagerly: it is a projection
+        restEtageMockMvc.perform(get("/api/etages?id.in=" + ids))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+        restEtageMockMvc.perform(get("/api/etages?expand=batiment&id.in=" + ids))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+        restEtageMockMvc.perform(get("/api/etages?after=&id.in=" + ids))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+
+        // An etage is read without its batiment, where the eager batiment was joined in the same statement
+        restEtageMockMvc.perform(get("/api/etages/{id}", etages.get(0).getId()))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+
+        // The etages updated in bulk, unchanged here, are read with a single statement, without their batiments,
+        // where the eager batiments took 3: the etages, then each of their 2 batiments
+        restEtageMockMvc.perform(put("/api/etages/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(etages)))
+            .andExpect(status().isOk())
+            .andExpect(TestUtil.statementBudget(1));
+    }
+
     @Test
     @Transactional
     public void getNonExistingEtage() throws Exception {
@@ -191,6 +556,31 @@ public class EtageResourceIT {
         assertThat(testEtage.getNumeroetage()).isEqualTo(UPDATED_NUMEROETAGE);
     }
 
+    @Test
+    @Transactional
+    public void updateEtageWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        etageRepository.saveAndFlush(etage);
+        String staleETag = "\"" + (etage.getVersion() - 1) + "\"";
+
+        // Update the etage
+        Etage updatedEtage = etageRepository.findById(etage.getId()).get();
+        // Disconnect from session so that the updates on updatedEtage are not directly saved in db
+        em.detach(updatedEtage);
+        updatedEtage
+            .numeroetage(UPDATED_NUMEROETAGE);
+
+        restEtageMockMvc.perform(put("/api/etages").with(csrf())
+            .header(HttpHeaders.IF_MATCH, staleETag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(updatedEtage)))
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Etage in the database
+        em.clear();
+        assertThat(etageRepository.findById(etage.getId()).get().getNumeroetage()).isNotEqualTo(UPDATED_NUMEROETAGE);
+    }
+
     @Test
     @Transactional
     public void updateNonExistingEtage() throws Exception {
@@ -207,6 +597,98 @@ public class EtageResourceIT {
         assertThat(etageList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    public void updateEtagesInBulk() throws Exception {
+        // Initialize the database
+        etageRepository.saveAndFlush(etage);
+
+        int databaseSizeBeforeUpdate = etageRepository.findAll().size();
+
+        // Update the etage
+        Etage updatedEtage = etageRepository.findById(etage.getId()).get();
+        // Disconnect from session so that the updates on updatedEtage are not directly saved in db
+        em.detach(updatedEtage);
+        updatedEtage
+            .numeroetage(UPDATED_NUMEROETAGE);
+
+        restEtageMockMvc.perform(put("/api/etages/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(updatedEtage))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0]").value(etage.getId().intValue()));
+
+        // Validate the Etage in the database
+        List<Etage> etageList = etageRepository.findAll();
+        assertThat(etageList).hasSize(databaseSizeBeforeUpdate);
+        assertThat(etageRepository.findById(etage.getId()).get().getNumeroetage()).isEqualTo(UPDATED_NUMEROETAGE);
+    }
+
+    @Test
+    @Transactional
+    public void updateNonExistingEtagesInBulk() throws Exception {
+        etage.setId(Long.MAX_VALUE);
+
+        // An unknown id rejects the whole bulk request
+        restEtageMockMvc.perform(put("/api/etages/bulk").with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(etage))))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void patchEtage() throws Exception {
+        // Initialize the database
+        Batiment batiment = BatimentResourceIT.createEntity(em);
+        em.persist(batiment);
+        etageRepository.saveAndFlush(etage);
+        String eTag = "\"" + etage.getVersion() + "\"";
+
+        // Patch the numeroetage and the batiment
+        restEtageMockMvc.perform(patch("/api/etages/{id}", etage.getId()).with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType("application/merge-patch+json")
+            .content("{\"numeroetage\":" + UPDATED_NUMEROETAGE + ",\"batiment\":{\"id\":" + batiment.getId() + "}}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.numeroetage").value(UPDATED_NUMEROETAGE))
+            .andExpect(jsonPath("$.batiment.id").value(batiment.getId().intValue()));
+
+        // The ETag read before the patch is stale
+        restEtageMockMvc.perform(patch("/api/etages/{id}", etage.getId()).with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType("application/merge-patch+json")
+            .content("{\"numeroetage\":" + DEFAULT_NUMEROETAGE + "}"))
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Etage in the database
+        em.clear();
+        Etage testEtage = etageRepository.findById(etage.getId()).get();
+        assertThat(testEtage.getNumeroetage()).isEqualTo(UPDATED_NUMEROETAGE);
+        assertThat(testEtage.getBatiment().getId()).isEqualTo(batiment.getId());
+    }
+
+    @Test
+    @Transactional
+    public void patchEtageChangedConcurrently() throws Exception {
+        // Initialize the database
+        etageRepository.saveAndFlush(etage);
+        String eTag = "\"" + etage.getVersion() + "\"";
+
+        // Another transaction updates the etage after it was loaded in the persistence context
+        em.createNativeQuery("update etage set version = version + 1 where id = :id")
+            .setParameter("id", etage.getId())
+            .executeUpdate();
+
+        // The version is checked again by the update
+        restEtageMockMvc.perform(patch("/api/etages/{id}", etage.getId()).with(csrf())
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType("application/merge-patch+json")
+            .content("{\"numeroetage\":" + UPDATED_NUMEROETAGE + "}"))
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @Transactional
     public void deleteEtage() throws Exception {
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.construction.config.StatementCountFilter;
 import com.construction.security.SecurityUtils;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
@@ -15,6 +16,7 @@ import org.springframework.security.oauth2.client.authentication.OAuth2Authentic
 import org.springframework.security.oauth2.core.oidc.OidcIdToken;
 import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.test.web.servlet.ResultMatcher;
 
 import java.io.IOException;
 import java.time.ZonedDateTime;
@@ -160,6 +162,21 @@ public final class TestUtil {
         return allQuery.getResultList();
     }
 
+    /**
+     * Checks the SQL statements run by a request, counted in the {@link StatementCountFilter#STATEMENT_COUNT_HEADER} header.
+     * @param maxStatements The maximum number of statements
+     * @return A matcher failing when the request runs more statements, or runs an identical statement repeatedly
+     */
+    public static ResultMatcher statementBudget(int maxStatements) {
+        return result -> {
+            String statements = result.getResponse().getHeader(StatementCountFilter.STATEMENT_COUNT_HEADER);
+            assertThat(statements).as("statement count header").isNotNull();
+            assertThat(Integer.parseInt(statements)).as("statements").isLessThanOrEqualTo(maxStatements);
+            assertThat(result.getResponse().getHeader(StatementCountFilter.REPEATED_STATEMENT_COUNT_HEADER))
+                .as("repeated statements").isEqualTo("0");
+        };
+    }
+
     final static String ID_TOKEN = "eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzI1NiJ9" +
         ".eyJzdWIiOiIxMjM0NTY3ODkwIiwibmFtZSI6IkpvaG4gRG9lIiwiYWRtaW4iOnRydWUsIm" +
         "p0aSI6ImQzNWRmMTRkLTA5ZjYtNDhmZi04YTkzLTdjNmYwMzM5MzE1OSIsImlhdCI6MTU0M" +
@@ -8,6 +8,7 @@ import com.construction.repository.UserRepository;
 import com.construction.security.AuthoritiesConstants;
 import com.construction.service.dto.UserDTO;
 import com.construction.service.mapper.UserMapper;
+import com.construction.web.rest.util.CursorPaginationUtil;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,6 +28,7 @@ import java.util.*;
 import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -123,6 +126,30 @@ public class UserResourceIT {
     }
 
 
+    @Test
+    @Transactional
+    public void getAllUsersWithCursor() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        User nextUser = userRepository.saveAndFlush(createEntity(em));
+
+        // Seek after the first user, in login order
+        restUserMockMvc.perform(get("/api/users?after={cursor}&size=1", CursorPaginationUtil.encodeCursor(DEFAULT_LOGIN))
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].login").value(nextUser.getLogin()))
+            .andExpect(header().doesNotExist("X-Total-Count"));
+
+        // The first page starts with the first user and links to the next one
+        restUserMockMvc.perform(get("/api/users?after=&size=1")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].login").value(DEFAULT_LOGIN))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")));
+    }
+
     @Test
     @Transactional
     public void getUser() throws Exception {